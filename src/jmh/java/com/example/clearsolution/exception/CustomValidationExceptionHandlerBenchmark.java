@@ -0,0 +1,77 @@
+package com.example.clearsolution.exception;
+
+import com.example.clearsolution.controler.UserController;
+import com.example.clearsolution.dto.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CustomValidationExceptionHandlerBenchmark {
+
+    private ObjectMapper objectMapper;
+    private CustomValidationExceptionHandler handler;
+    private MethodParameter createUserParameter;
+    private WebRequest request;
+    private User invalidUser;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        handler = new CustomValidationExceptionHandler(new SimpleMeterRegistry(), objectMapper);
+        createUserParameter = new MethodParameter(
+                UserController.class.getMethod("createUser", User.class), 0);
+        request = new ServletWebRequest(new MockHttpServletRequest("POST", "/api/users"));
+        invalidUser = new User();
+    }
+
+    @Benchmark
+    public byte[] rejectInvalidBody() throws Exception {
+        BindingResult bindingResult = new BeanPropertyBindingResult(invalidUser, "user");
+        bindingResult.addError(new FieldError("user", "email", "Email is required"));
+        bindingResult.addError(new FieldError("user", "firstName", "First name is required"));
+        bindingResult.addError(new FieldError("user", "lastName", "Last name is required"));
+        return toBytes(handler.handleMethodArgumentNotValid(
+                new MethodArgumentNotValidException(createUserParameter, bindingResult),
+                new HttpHeaders(), HttpStatus.BAD_REQUEST, request));
+    }
+
+    @Benchmark
+    public byte[] rejectDomainRule() throws Exception {
+        return toBytes(handler.handleClearSolutionException(
+                new ClearSolutionException("Date of birth must be in the past")));
+    }
+
+    private byte[] toBytes(ResponseEntity<Object> response) throws Exception {
+        Object body = response.getBody();
+        return body instanceof byte[] bytes ? bytes : objectMapper.writeValueAsBytes(body);
+    }
+}
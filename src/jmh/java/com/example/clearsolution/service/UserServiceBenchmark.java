@@ -0,0 +1,88 @@
+package com.example.clearsolution.service;
+
+import com.example.clearsolution.config.CacheConfig;
+import com.example.clearsolution.dto.User;
+import com.example.clearsolution.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.BeanUtils;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UserServiceBenchmark {
+
+    private UserServiceImpl userService;
+    private User user;
+    private User updatedUser;
+
+    @Setup
+    public void setUp() {
+        UserRepository userRepository = (UserRepository) Proxy.newProxyInstance(
+                UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("save")) {
+                        return args[0];
+                    }
+                    if (method.getName().equals("existsByEmail")) {
+                        return false;
+                    }
+                    if (method.getName().equals("streamAllEmails")) {
+                        return Stream.empty();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        EmailFilter emailFilter = new EmailFilter(userRepository, 1_000_000, 0.01);
+        emailFilter.warmUp();
+        UserCache userCache = new UserCache(new CaffeineCacheManager(CacheConfig.USERS_CACHE));
+        userService = new UserServiceImpl(userRepository, null, null, emailFilter, userCache, event -> { });
+        ReflectionTestUtils.setField(userService, "userAgeLimit", 18);
+
+        user = User.builder()
+                .id(42)
+                .email("john.doe@gmail.com")
+                .firstName("John")
+                .lastName("Doe")
+                .birthDate(LocalDate.of(1990, 5, 17))
+                .build();
+        updatedUser = User.builder()
+                .email("jane.doe@gmail.com")
+                .firstName("Jane")
+                .lastName("Doe")
+                .birthDate(LocalDate.of(1992, 7, 1))
+                .address("221B Baker Street")
+                .phoneNumber("0123456789")
+                .build();
+    }
+
+    @Benchmark
+    public User createUserWithAgeCheck() {
+        return userService.createUser(user);
+    }
+
+    @Benchmark
+    public User copyProperties() {
+        User existingUser = new User();
+        BeanUtils.copyProperties(updatedUser, existingUser, "id");
+        return existingUser;
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.clearsolution.loadtest;
+
+import com.example.clearsolution.ClearSolutionApplication;
+import com.example.clearsolution.dto.UserBatchResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.StringJoiner;
+
+public final class LoadTest {
+
+    private static final Map<String, String> DEFAULTS = Map.of(
+            "rate", "200",
+            "duration", "60s",
+            "warmup", "15s",
+            "users", "10000",
+            "max-in-flight", "1000",
+            "max-p99", "0ms",
+            "max-error-rate", "0.01",
+            "report-dir", "target/loadtest",
+            "jdbc-url", "",
+            "seed", "42");
+    private static final int SEED_CHUNK_SIZE = 1000;
+    private static final String ROW_FORMAT = "%-14s %9s %8s %9s %9s %9s %9s %9s %9s%n";
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>(DEFAULTS);
+        List<String> appArgs = new ArrayList<>(List.of("--server.port=0", "--spring.profiles.active=prod"));
+        for (String arg : args) {
+            String[] option = arg.replaceFirst("^--", "").split("=", 2);
+            if (option.length == 2 && DEFAULTS.containsKey(option[0])) {
+                options.put(option[0], option[1]);
+            } else {
+                appArgs.add(arg);
+            }
+        }
+
+        int exitCode;
+        try (EmbeddedPostgres postgres = options.get("jdbc-url").isEmpty() ? EmbeddedPostgres.start() : null) {
+            if (postgres != null) {
+                appArgs.add("--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres")
+                        + "&reWriteBatchedInserts=true");
+                appArgs.add("--spring.datasource.username=postgres");
+                appArgs.add("--spring.datasource.password=");
+            } else {
+                appArgs.add("--spring.datasource.url=" + options.get("jdbc-url"));
+            }
+            try (ConfigurableApplicationContext context =
+                         SpringApplication.run(ClearSolutionApplication.class, appArgs.toArray(String[]::new))) {
+                exitCode = run(context, options);
+            }
+        }
+        System.exit(exitCode);
+    }
+
+    private static int run(ConfigurableApplicationContext context, Map<String, String> options) throws Exception {
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        URI baseUri = URI.create("http://localhost:" + port);
+        int rate = Integer.parseInt(options.get("rate"));
+        Duration warmup = DurationStyle.detectAndParse(options.get("warmup"));
+        Duration duration = DurationStyle.detectAndParse(options.get("duration"));
+        long seed = Long.parseLong(options.get("seed"));
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        List<Integer> userIds = seed(client, baseUri, context.getBean(ObjectMapper.class),
+                Integer.parseInt(options.get("users")), seed);
+        OpenLoopDriver driver = new OpenLoopDriver(client, Integer.parseInt(options.get("max-in-flight")));
+
+        System.out.printf("Warming up for %s at %d req/s%n", warmup, rate);
+        driver.run(new UserWorkload(baseUri, "warmup", userIds, seed + 1), rate, warmup);
+        System.out.printf("Measuring for %s at %d req/s%n", duration, rate);
+        Map<String, OpenLoopDriver.OperationStats> stats =
+                driver.run(new UserWorkload(baseUri, "load", userIds, seed + 2), rate, duration);
+
+        OpenLoopDriver.OperationStats total = OpenLoopDriver.OperationStats.total(List.copyOf(stats.values()));
+        report(stats, total, duration, Path.of(options.get("report-dir")));
+        return gate(total, DurationStyle.detectAndParse(options.get("max-p99")),
+                Double.parseDouble(options.get("max-error-rate")));
+    }
+
+    private static List<Integer> seed(HttpClient client, URI baseUri, ObjectMapper objectMapper,
+                                      int users, long seed) throws IOException, InterruptedException {
+        System.out.printf("Seeding %d users%n", users);
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Integer> userIds = new ArrayList<>(users);
+        for (int from = 0; from < users; from += SEED_CHUNK_SIZE) {
+            StringJoiner body = new StringJoiner(",", "[", "]");
+            for (int i = from; i < Math.min(users, from + SEED_CHUNK_SIZE); i++) {
+                body.add(UserWorkload.userJson(UserWorkload.seedEmail(i), i, UserWorkload.birthDate(random)));
+            }
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(baseUri.resolve("/api/users/batch"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            UserBatchResult result = response.statusCode() == 200
+                    ? objectMapper.readValue(response.body(), UserBatchResult.class)
+                    : null;
+            if (result == null || !result.getErrors().isEmpty()) {
+                throw new IllegalStateException("Seeding failed: " + response.body());
+            }
+            userIds.addAll(result.getCreatedIds());
+        }
+        return userIds;
+    }
+
+    private static void report(Map<String, OpenLoopDriver.OperationStats> stats,
+                               OpenLoopDriver.OperationStats total,
+                               Duration duration, Path reportDir) throws IOException {
+        Files.createDirectories(reportDir);
+        try (PrintStream summary = new PrintStream(Files.newOutputStream(reportDir.resolve("summary.txt")))) {
+            for (PrintStream out : List.of(System.out, summary)) {
+                out.printf(ROW_FORMAT, "operation", "requests", "errors", "req/s",
+                        "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+                stats.forEach((name, operationStats) -> printRow(out, name, operationStats, duration));
+                printRow(out, "all", total, duration);
+            }
+        }
+        for (Map.Entry<String, OpenLoopDriver.OperationStats> entry : stats.entrySet()) {
+            writeHistogram(reportDir.resolve(entry.getKey() + ".hgrm"), entry.getValue().latency);
+        }
+        writeHistogram(reportDir.resolve("all.hgrm"), total.latency);
+        System.out.println("Latency histograms written to " + reportDir.toAbsolutePath());
+    }
+
+    private static void printRow(PrintStream out, String name, OpenLoopDriver.OperationStats stats,
+                                 Duration duration) {
+        Histogram latency = stats.latency;
+        out.printf(ROW_FORMAT, name,
+                latency.getTotalCount() + stats.rejected.sum(),
+                stats.failures(),
+                String.format("%.1f", latency.getTotalCount() * 1000.0 / duration.toMillis()),
+                millis(latency.getValueAtPercentile(50)),
+                millis(latency.getValueAtPercentile(90)),
+                millis(latency.getValueAtPercentile(99)),
+                millis(latency.getValueAtPercentile(99.9)),
+                millis(latency.getMaxValue()));
+    }
+
+    private static void writeHistogram(Path file, Histogram histogram) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            histogram.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    private static int gate(OpenLoopDriver.OperationStats total, Duration maxP99, double maxErrorRate) {
+        int exitCode = 0;
+        long requests = total.latency.getTotalCount() + total.rejected.sum();
+        double errorRate = requests == 0 ? 1.0 : (double) total.failures() / requests;
+        if (errorRate > maxErrorRate) {
+            System.out.printf("FAILED: error rate %.4f is above %.4f%n", errorRate, maxErrorRate);
+            exitCode = 1;
+        }
+        long p99Micros = total.latency.getValueAtPercentile(99);
+        if (!maxP99.isZero() && p99Micros > maxP99.toNanos() / 1000) {
+            System.out.printf("FAILED: p99 %s ms is above %d ms%n", millis(p99Micros), maxP99.toMillis());
+            exitCode = 1;
+        }
+        return exitCode;
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.2f", micros / 1000.0);
+    }
+}
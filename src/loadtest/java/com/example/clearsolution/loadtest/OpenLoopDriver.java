@@ -0,0 +1,85 @@
+package com.example.clearsolution.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+final class OpenLoopDriver {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final HttpClient client;
+    private final int maxInFlight;
+
+    OpenLoopDriver(HttpClient client, int maxInFlight) {
+        this.client = client;
+        this.maxInFlight = maxInFlight;
+    }
+
+    Map<String, OperationStats> run(UserWorkload workload, int rate, Duration duration) throws InterruptedException {
+        Map<String, OperationStats> stats = new LinkedHashMap<>();
+        workload.operationNames().forEach(name -> stats.put(name, new OperationStats()));
+
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long requests = duration.toNanos() / intervalNanos;
+        long start = System.nanoTime();
+        for (long i = 0; i < requests; i++) {
+            long intendedStart = start + i * intervalNanos;
+            long wait;
+            while ((wait = intendedStart - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            UserWorkload.Operation operation = workload.next();
+            OperationStats operationStats = stats.get(operation.name());
+            if (!inFlight.tryAcquire()) {
+                operationStats.rejected.increment();
+                continue;
+            }
+            client.sendAsync(operation.request(), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStart);
+                        operationStats.latency.recordValue(latencyMicros);
+                        if (error != null || response.statusCode() >= 400) {
+                            operationStats.errors.increment();
+                        }
+                        inFlight.release();
+                    });
+        }
+        if (!inFlight.tryAcquire(maxInFlight, 1, TimeUnit.MINUTES)) {
+            throw new IllegalStateException("Requests still in flight a minute after the run ended");
+        }
+        return stats;
+    }
+
+    static final class OperationStats {
+        final Histogram latency = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+        final LongAdder errors = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+
+        long failures() {
+            return errors.sum() + rejected.sum();
+        }
+
+        static OperationStats total(List<OperationStats> stats) {
+            OperationStats total = new OperationStats();
+            for (OperationStats operationStats : stats) {
+                total.latency.add(operationStats.latency);
+                total.errors.add(operationStats.errors.sum());
+                total.rejected.add(operationStats.rejected.sum());
+            }
+            return total;
+        }
+    }
+}
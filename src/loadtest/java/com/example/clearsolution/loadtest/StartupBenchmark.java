@@ -0,0 +1,188 @@
+package com.example.clearsolution.loadtest;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public final class StartupBenchmark {
+
+    private static final Map<String, String> DEFAULTS = Map.of(
+            "runs", "5",
+            "timeout", "120s",
+            "default-jar", "target/clearSolution-0.0.1-SNAPSHOT-exec.jar",
+            "optimized-jar", "target/clearSolution-0.0.1-SNAPSHOT.jar",
+            "cds-archive", "target/clearSolution.jsa",
+            "report-dir", "target/loadtest",
+            "jdbc-url", "");
+    private static final String ROW_FORMAT = "%-10s %5s %12s %12s %12s %12s%n";
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(20);
+
+    private final Map<String, String> options;
+    private final List<String> datasourceArgs;
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+
+    private StartupBenchmark(Map<String, String> options, List<String> datasourceArgs) {
+        this.options = options;
+        this.datasourceArgs = datasourceArgs;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>(DEFAULTS);
+        for (String arg : args) {
+            String[] option = arg.replaceFirst("^--", "").split("=", 2);
+            if (option.length != 2 || !DEFAULTS.containsKey(option[0])) {
+                throw new IllegalArgumentException("Unknown option " + arg);
+            }
+            options.put(option[0], option[1]);
+        }
+        for (String jar : List.of("default-jar", "optimized-jar")) {
+            if (!Files.exists(Path.of(options.get(jar)))) {
+                throw new IllegalStateException(options.get(jar)
+                        + " not found, build it with ./mvnw -Pfast-startup -DskipTests package");
+            }
+        }
+
+        try (EmbeddedPostgres postgres = options.get("jdbc-url").isEmpty() ? EmbeddedPostgres.start() : null) {
+            List<String> datasourceArgs = postgres != null
+                    ? List.of("--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                    "--spring.datasource.username=postgres",
+                    "--spring.datasource.password=")
+                    : List.of("--spring.datasource.url=" + options.get("jdbc-url"));
+            new StartupBenchmark(options, datasourceArgs).run();
+        }
+    }
+
+    private void run() throws Exception {
+        Path reportDir = Path.of(options.get("report-dir"));
+        Files.createDirectories(reportDir);
+        Path archive = Path.of(options.get("cds-archive")).toAbsolutePath();
+        Files.deleteIfExists(archive);
+
+        System.out.println("Training run, writing " + archive);
+        Startup training = start("training", optimizedCommand("-XX:ArchiveClassesAtExit=" + archive), reportDir);
+        System.out.printf("Training run answered after %d ms%n", training.millis());
+        if (!Files.exists(archive)) {
+            throw new IllegalStateException("Training run did not write " + archive);
+        }
+
+        int runs = Integer.parseInt(options.get("runs"));
+        Map<String, List<Startup>> results = Map.of(
+                "default", new ArrayList<>(),
+                "optimized", new ArrayList<>());
+        for (int i = 1; i <= runs; i++) {
+            results.get("default").add(start("default-" + i, defaultCommand(), reportDir));
+            results.get("optimized").add(start("optimized-" + i,
+                    optimizedCommand("-XX:SharedArchiveFile=" + archive), reportDir));
+        }
+
+        try (PrintStream summary = new PrintStream(Files.newOutputStream(reportDir.resolve("startup.txt")))) {
+            for (PrintStream out : List.of(System.out, summary)) {
+                out.printf(ROW_FORMAT, "build", "runs", "median ms", "min ms", "max ms", "median RSS MB");
+                for (String build : List.of("default", "optimized")) {
+                    List<Startup> startups = results.get(build);
+                    List<Long> millis = startups.stream().map(Startup::millis).sorted().toList();
+                    List<Long> rss = startups.stream().map(Startup::rssKilobytes).sorted().toList();
+                    out.printf(ROW_FORMAT, build, startups.size(), median(millis), millis.get(0),
+                            millis.get(millis.size() - 1), median(rss) / 1024);
+                }
+            }
+        }
+        System.out.println("Application logs written to " + reportDir.toAbsolutePath());
+    }
+
+    private List<String> defaultCommand() {
+        List<String> command = new ArrayList<>(List.of(java(), "-jar", options.get("default-jar")));
+        command.addAll(datasourceArgs);
+        return command;
+    }
+
+    private List<String> optimizedCommand(String cdsOption) {
+        List<String> command = new ArrayList<>(List.of(java(), cdsOption, "-Dspring.aot.enabled=true",
+                "-jar", options.get("optimized-jar"), "--spring.profiles.active=fast-startup"));
+        command.addAll(datasourceArgs);
+        return command;
+    }
+
+    private Startup start(String name, List<String> command, Path reportDir) throws Exception {
+        int port = freePort();
+        List<String> withPort = new ArrayList<>(command);
+        withPort.add("--server.port=" + port);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/users"))
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+        long deadline = System.nanoTime() + DurationStyle.detectAndParse(options.get("timeout")).toNanos();
+
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(withPort)
+                .redirectErrorStream(true)
+                .redirectOutput(reportDir.resolve(name + ".log").toFile())
+                .start();
+        try {
+            while (!answered(request)) {
+                if (!process.isAlive() || System.nanoTime() > deadline) {
+                    throw new IllegalStateException(name + " did not answer GET /api/users, see "
+                            + reportDir.resolve(name + ".log"));
+                }
+                Thread.sleep(POLL_INTERVAL.toMillis());
+            }
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            return new Startup(millis, rssKilobytes(process.pid()));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(1, TimeUnit.MINUTES)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private boolean answered(HttpRequest request) throws InterruptedException {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static long rssKilobytes(long pid) throws IOException, InterruptedException {
+        Process ps = new ProcessBuilder("ps", "-o", "rss=", "-p", Long.toString(pid)).start();
+        String output = new String(ps.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+        ps.waitFor();
+        return output.isEmpty() ? 0 : Long.parseLong(output);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static String java() {
+        return ProcessHandle.current().info().command().orElse("java");
+    }
+
+    private static long median(List<Long> sorted) {
+        return sorted.get(sorted.size() / 2);
+    }
+
+    private record Startup(long millis, long rssKilobytes) {
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.clearsolution.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+final class UserWorkload {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final LocalDate MIN_BIRTH_DATE = LocalDate.of(1950, 1, 1);
+    private static final int BIRTH_DATE_SPAN_DAYS = 55 * 365;
+
+    private final URI baseUri;
+    private final String emailPrefix;
+    private final List<Integer> userIds;
+    private final SplittableRandom random;
+    private final List<WeightedOperation> operations;
+    private final int totalWeight;
+    private long created;
+
+    UserWorkload(URI baseUri, String emailPrefix, List<Integer> userIds, long seed) {
+        this.baseUri = baseUri;
+        this.emailPrefix = emailPrefix;
+        this.userIds = userIds;
+        this.random = new SplittableRandom(seed);
+        this.operations = List.of(
+                new WeightedOperation("get-user", 40, this::getUser),
+                new WeightedOperation("get-by-email", 10, this::getUserByEmail),
+                new WeightedOperation("page", 15, this::getUsersPage),
+                new WeightedOperation("range-page", 10, this::getUsersByBirthDateRangePage),
+                new WeightedOperation("range-fields", 5, this::getUserFieldsByBirthDateRange),
+                new WeightedOperation("create", 10, this::createUser),
+                new WeightedOperation("patch", 10, this::patchUser));
+        this.totalWeight = operations.stream().mapToInt(WeightedOperation::weight).sum();
+    }
+
+    List<String> operationNames() {
+        return operations.stream().map(WeightedOperation::name).toList();
+    }
+
+    Operation next() {
+        int pick = random.nextInt(totalWeight);
+        for (WeightedOperation operation : operations) {
+            pick -= operation.weight();
+            if (pick < 0) {
+                return new Operation(operation.name(), operation.request().get());
+            }
+        }
+        throw new IllegalStateException("Weights do not add up");
+    }
+
+    static String userJson(String email, int index, LocalDate birthDate) {
+        return String.format("{\"email\":\"%s\",\"firstName\":\"First%d\",\"lastName\":\"Last%d\","
+                        + "\"birthDate\":\"%s\",\"address\":\"Street %d\",\"phoneNumber\":\"%010d\"}",
+                email, index, index, birthDate, index, index);
+    }
+
+    static LocalDate birthDate(SplittableRandom random) {
+        return MIN_BIRTH_DATE.plusDays(random.nextInt(BIRTH_DATE_SPAN_DAYS));
+    }
+
+    static String seedEmail(int index) {
+        return "seed" + index + "@gmail.com";
+    }
+
+    private HttpRequest getUser() {
+        return get("/api/users/" + randomUserId());
+    }
+
+    private HttpRequest getUserByEmail() {
+        return get("/api/users/by-email?email=" + seedEmail(random.nextInt(userIds.size())));
+    }
+
+    private HttpRequest getUsersPage() {
+        return get("/api/users?limit=50&after=" + randomUserId());
+    }
+
+    private HttpRequest getUsersByBirthDateRangePage() {
+        LocalDate from = birthDate(random);
+        return get("/api/users/range?limit=50&fromDate=" + from + "&toDate=" + from.plusYears(1));
+    }
+
+    private HttpRequest getUserFieldsByBirthDateRange() {
+        LocalDate from = birthDate(random);
+        return get("/api/users/range?fields=id,email,firstName&fromDate=" + from + "&toDate=" + from.plusMonths(1));
+    }
+
+    private HttpRequest createUser() {
+        long index = created++;
+        String body = userJson(emailPrefix + index + "@gmail.com", (int) index, birthDate(random));
+        return request("/api/users")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest patchUser() {
+        return request("/api/users/" + randomUserId())
+                .header("Content-Type", "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString(
+                        "{\"address\":\"Street " + random.nextInt(1_000_000) + "\"}"))
+                .build();
+    }
+
+    private int randomUserId() {
+        return userIds.get(random.nextInt(userIds.size()));
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path)).timeout(REQUEST_TIMEOUT);
+    }
+
+    record Operation(String name, HttpRequest request) {
+    }
+
+    private record WeightedOperation(String name, int weight, Supplier<HttpRequest> request) {
+    }
+}
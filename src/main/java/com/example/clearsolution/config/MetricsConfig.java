@@ -0,0 +1,27 @@
+package com.example.clearsolution.config;
+
+import com.example.clearsolution.metrics.StatementCounter;
+import com.example.clearsolution.metrics.StatementsPerRequestFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCounter());
+    }
+
+    @Bean
+    public FilterRegistrationBean<StatementsPerRequestFilter> statementsPerRequestFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<StatementsPerRequestFilter> registration =
+                new FilterRegistrationBean<>(new StatementsPerRequestFilter(meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
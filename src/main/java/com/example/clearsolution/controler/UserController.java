@@ -1,17 +1,51 @@
 package com.example.clearsolution.controler;
 
 import com.example.clearsolution.dto.User;
+import com.example.clearsolution.dto.UserAgeDistribution;
+import com.example.clearsolution.dto.UserBatchResult;
+import com.example.clearsolution.dto.UserDeleteResult;
+import com.example.clearsolution.dto.UserImportProgress;
+import com.example.clearsolution.dto.UserPage;
+import com.example.clearsolution.dto.UserSummary;
 import com.example.clearsolution.exception.ClearSolutionException;
+import com.example.clearsolution.exception.PreconditionFailedException;
+import com.example.clearsolution.exception.UserNotFoundException;
+import com.example.clearsolution.service.UserChangeFeed;
+import com.example.clearsolution.service.UserImportService;
 import com.example.clearsolution.service.UserService;
+import com.example.clearsolution.service.UserStatistics;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
+import java.time.MonthDay;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 
 @RestController
@@ -19,43 +53,291 @@ import java.util.List;
 @RequiredArgsConstructor
 public class UserController {
 
+    private static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+    private static final String TEXT_CSV_VALUE = "text/csv";
+    private static final String LAST_EVENT_ID = "Last-Event-ID";
+    private static final int EXPORT_FLUSH_INTERVAL = 1000;
+    private static final DateTimeFormatter MONTH_DAY = DateTimeFormatter.ofPattern("MM-dd");
+    private static final Pattern STRONG_VERSION_TAG = Pattern.compile("\"(\\d{1,18})\"");
+
     private final UserService userService;
+    private final UserImportService userImportService;
+    private final UserChangeFeed userChangeFeed;
+    private final UserStatistics userStatistics;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ResponseEntity<User> createUser(@Valid @RequestBody User user) {
         return ResponseEntity.ok(userService.createUser(user));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<UserBatchResult> createUsers(@RequestBody List<User> users) {
+        return ResponseEntity.ok(userService.createUsers(users));
+    }
+
+    @PostMapping(value = "/import", consumes = {TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        ObjectWriter writer = objectMapper.writerFor(UserImportProgress.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            generator.setRootValueSeparator(null);
+            Consumer<UserImportProgress> progressWriter = progress -> {
+                try {
+                    writer.writeValue(generator, progress);
+                    generator.writeRaw('\n');
+                    generator.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            };
+            progressWriter.accept(userImportService.importUsers(request.getInputStream(), contentType, progressWriter));
+        }
+    }
+
     @PutMapping("/{userId}")
     public ResponseEntity<User> updateUser(@PathVariable Integer userId,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                                            @Valid @RequestBody User updatedUser) {
-        return ResponseEntity.ok(userService.updateUser(userId, updatedUser));
+        return withETag(userService.updateUser(userId, updatedUser, toExpectedVersions(userId, ifMatch)));
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<User> updateUserFiled(@PathVariable Integer userId, @RequestBody User updatedUser) {
-        return ResponseEntity.ok(userService.updateUserField(userId, updatedUser));
+    public ResponseEntity<User> updateUserFiled(@PathVariable Integer userId,
+                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                @RequestBody User updatedUser) {
+        return withETag(userService.updateUserField(userId, updatedUser, toExpectedVersions(userId, ifMatch)));
+    }
+
+    @PatchMapping(value = "/{userId}", consumes = MERGE_PATCH_JSON_VALUE)
+    public ResponseEntity<User> mergePatchUser(@PathVariable Integer userId,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                               @RequestBody Map<String, Object> patch) {
+        return withETag(userService.mergePatchUser(userId, patch, toExpectedVersions(userId, ifMatch)));
     }
 
     @DeleteMapping("/{userId}")
-    public void deleteUser(@PathVariable Integer userId) {
-        userService.deleteUser(userId);
+    public ResponseEntity<Void> deleteUser(@PathVariable Integer userId) {
+        if (!userService.deleteUser(userId)) {
+            throw new UserNotFoundException(userId);
+        }
+        return ResponseEntity.ok().build();
+    }
+
+    @DeleteMapping(params = "ids")
+    public ResponseEntity<UserDeleteResult> deleteUsers(@RequestParam("ids") List<Integer> ids) {
+        return ResponseEntity.ok(new UserDeleteResult(userService.deleteUsers(ids)));
+    }
+
+    @DeleteMapping(params = {"fromDate", "toDate"})
+    public ResponseEntity<UserDeleteResult> deleteUsersByBirthDateRange(
+            @RequestParam("fromDate") LocalDate fromDate,
+            @RequestParam("toDate") LocalDate toDate) {
+        validateDateRange(fromDate, toDate);
+        return ResponseEntity.ok(new UserDeleteResult(userService.deleteUsersByBirthDateRange(fromDate, toDate)));
     }
 
     @GetMapping("/range")
     public ResponseEntity<List<User>> searchUsersByBirthDateRange(
             @RequestParam("fromDate") LocalDate fromDate,
             @RequestParam("toDate") LocalDate toDate) {
-        if (fromDate != null && toDate != null && fromDate.isBefore(toDate)) {
-            List<User> users = userService.getUsersByBirthDateRange(fromDate, toDate);
-            return ResponseEntity.ok(users);
-        }
-        throw new ClearSolutionException
-                ("Invalid dates. The 'from' date must be less than the 'to' date.");
+        validateDateRange(fromDate, toDate);
+        List<User> users = userService.getUsersByBirthDateRange(fromDate, toDate);
+        return ResponseEntity.ok().eTag(listETag(users)).body(users);
+    }
+
+    @GetMapping(value = "/range", params = {"fields", "!limit"})
+    public ResponseEntity<List<Map<String, Object>>> searchUserFieldsByBirthDateRange(
+            @RequestParam("fromDate") LocalDate fromDate,
+            @RequestParam("toDate") LocalDate toDate,
+            @RequestParam("fields") List<String> fields) {
+        validateDateRange(fromDate, toDate);
+        List<Map<String, Object>> users = userService.getUsersByBirthDateRange(fromDate, toDate, fields);
+        return ResponseEntity.ok().eTag(rowsETag(users)).body(users);
+    }
+
+    @GetMapping(value = "/range", params = "limit")
+    public ResponseEntity<UserPage> searchUsersByBirthDateRangePage(
+            @RequestParam("fromDate") LocalDate fromDate,
+            @RequestParam("toDate") LocalDate toDate,
+            @RequestParam(value = "after", required = false) Integer after,
+            @RequestParam("limit") int limit,
+            @RequestParam(value = "fields", required = false) List<String> fields) {
+        rejectFieldsOnPage(fields);
+        validateDateRange(fromDate, toDate);
+        UserPage page = userService.getUsersByBirthDateRangePage(fromDate, toDate, after, limit);
+        return ResponseEntity.ok().eTag(listETag(page.getUsers())).body(page);
+    }
+
+    @GetMapping("/range/summary")
+    public ResponseEntity<List<UserSummary>> searchUserSummariesByBirthDateRange(
+            @RequestParam("fromDate") LocalDate fromDate,
+            @RequestParam("toDate") LocalDate toDate,
+            @RequestParam(value = "sort", defaultValue = "asc") String sort,
+            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        validateDateRange(fromDate, toDate);
+        return ResponseEntity.ok(userService.getUserSummariesByBirthDateRange(fromDate, toDate,
+                toSortDirection(sort), limit));
+    }
+
+    @GetMapping("/range/count")
+    public ResponseEntity<Long> countUsersByBirthDateRange(
+            @RequestParam("fromDate") LocalDate fromDate,
+            @RequestParam("toDate") LocalDate toDate) {
+        validateDateRange(fromDate, toDate);
+        return ResponseEntity.ok(userService.countUsersByBirthDateRange(fromDate, toDate));
+    }
+
+    @GetMapping(value = "/birthdays", params = "on")
+    public ResponseEntity<List<User>> getUsersByBirthday(@RequestParam("on") String on) {
+        MonthDay monthDay = toMonthDay(on);
+        List<User> users = userService.getUsersByBirthday(monthDay, monthDay);
+        return ResponseEntity.ok().eTag(listETag(users)).body(users);
+    }
+
+    @GetMapping(value = "/birthdays", params = {"from", "to"})
+    public ResponseEntity<List<User>> getUsersByBirthdayWindow(@RequestParam("from") String from,
+                                                               @RequestParam("to") String to) {
+        List<User> users = userService.getUsersByBirthday(toMonthDay(from), toMonthDay(to));
+        return ResponseEntity.ok().eTag(listETag(users)).body(users);
     }
 
     @GetMapping
     public ResponseEntity<List<User>> getUsers() {
-      return ResponseEntity.ok(userService.getListOfUsers());
+      List<User> users = userService.getListOfUsers();
+      return ResponseEntity.ok().eTag(listETag(users)).body(users);
+    }
+
+    @GetMapping(params = {"fields", "!limit"})
+    public ResponseEntity<List<Map<String, Object>>> getUserFields(@RequestParam("fields") List<String> fields) {
+        List<Map<String, Object>> users = userService.getListOfUsers(fields);
+        return ResponseEntity.ok().eTag(rowsETag(users)).body(users);
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<UserAgeDistribution> getAgeDistribution(
+            @RequestParam(value = "bucketSize", defaultValue = "10") int bucketSize) {
+        return ResponseEntity.ok(userStatistics.getAgeDistribution(bucketSize));
+    }
+
+    @GetMapping("/by-email")
+    public ResponseEntity<User> getUserByEmail(@RequestParam("email") String email) {
+        return withETag(userService.getUserByEmail(email));
+    }
+
+    @GetMapping("/{userId}")
+    public ResponseEntity<User> getUser(@PathVariable Integer userId) {
+        return withETag(userService.getUser(userId));
+    }
+
+    @GetMapping(params = "limit")
+    public ResponseEntity<UserPage> getUsersPage(
+            @RequestParam(value = "after", required = false) Integer after,
+            @RequestParam("limit") int limit,
+            @RequestParam(value = "fields", required = false) List<String> fields) {
+        rejectFieldsOnPage(fields);
+        UserPage page = userService.getUsersPage(after, limit);
+        return ResponseEntity.ok().eTag(listETag(page.getUsers())).body(page);
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestHeader(value = LAST_EVENT_ID, required = false) String lastEventId) {
+        return userChangeFeed.subscribe(lastEventId);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(this::writeUsersAsNdjson);
+    }
+
+    private void writeUsersAsNdjson(OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(User.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            int[] written = {0};
+            userService.exportUsers(user -> {
+                try {
+                    writer.writeValue(generator, user);
+                    generator.writeRaw('\n');
+                    if (written[0]++ % EXPORT_FLUSH_INTERVAL == 0) {
+                        generator.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private ResponseEntity<User> withETag(User user) {
+        return ResponseEntity.ok()
+                .eTag("\"" + user.getVersion() + "\"")
+                .body(user);
+    }
+
+    private String listETag(List<User> users) {
+        long hash = users.size();
+        for (User user : users) {
+            hash = 31 * hash + user.getId();
+            hash = 31 * hash + user.getVersion();
+        }
+        return "W/\"" + Long.toHexString(hash) + "\"";
+    }
+
+    private String rowsETag(List<Map<String, Object>> rows) {
+        long hash = rows.size();
+        for (Map<String, Object> row : rows) {
+            hash = 31 * hash + row.hashCode();
+        }
+        return "W/\"" + Long.toHexString(hash) + "\"";
+    }
+
+    private Set<Long> toExpectedVersions(Integer userId, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        Set<Long> versions = new HashSet<>();
+        for (String tag : ifMatch.split(",")) {
+            Matcher matcher = STRONG_VERSION_TAG.matcher(tag.trim());
+            if (matcher.matches()) {
+                versions.add(Long.parseLong(matcher.group(1)));
+            }
+        }
+        if (versions.isEmpty()) {
+            throw new PreconditionFailedException(userId);
+        }
+        return versions;
+    }
+
+    private MonthDay toMonthDay(String monthDay) {
+        try {
+            return MonthDay.parse(monthDay, MONTH_DAY);
+        } catch (DateTimeParseException e) {
+            throw new ClearSolutionException("Birthday must match MM-dd");
+        }
+    }
+
+    private Sort.Direction toSortDirection(String sort) {
+        return Sort.Direction.fromOptionalString(sort)
+                .orElseThrow(() -> new ClearSolutionException("Sort must be either 'asc' or 'desc'"));
+    }
+
+    private void rejectFieldsOnPage(List<String> fields) {
+        if (fields != null) {
+            throw new ClearSolutionException("Fields can not be combined with limit, pages always return full users");
+        }
+    }
+
+    private void validateDateRange(LocalDate fromDate, LocalDate toDate) {
+        if (fromDate == null || toDate == null || !fromDate.isBefore(toDate)) {
+            throw new ClearSolutionException
+                    ("Invalid dates. The 'from' date must be less than the 'to' date.");
+        }
     }
 }
@@ -0,0 +1,43 @@
+package com.example.clearsolution.controler;
+
+import com.example.clearsolution.dto.User;
+import com.example.clearsolution.dto.UserWriteStatus;
+import com.example.clearsolution.service.UserWriteBehindService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api/users/async")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "user.write-behind.enabled", havingValue = "true")
+public class UserWriteBehindController {
+
+    private final UserWriteBehindService writeBehindService;
+
+    @PostMapping
+    public ResponseEntity<UserWriteStatus> createUser(@Valid @RequestBody User user) {
+        return accepted(writeBehindService.enqueueCreate(user));
+    }
+
+    @PutMapping("/{userId}")
+    public ResponseEntity<UserWriteStatus> updateUser(@PathVariable Integer userId,
+                                                      @Valid @RequestBody User updatedUser) {
+        return accepted(writeBehindService.enqueueUpdate(userId, updatedUser));
+    }
+
+    @GetMapping("/{trackingId}")
+    public ResponseEntity<UserWriteStatus> getStatus(@PathVariable String trackingId) {
+        return ResponseEntity.ok(writeBehindService.getStatus(trackingId));
+    }
+
+    private ResponseEntity<UserWriteStatus> accepted(UserWriteStatus status) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/users/async/" + status.getTrackingId()))
+                .body(status);
+    }
+}
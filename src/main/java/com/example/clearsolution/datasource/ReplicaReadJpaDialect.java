@@ -0,0 +1,37 @@
+package com.example.clearsolution.datasource;
+
+import jakarta.persistence.CacheRetrieveMode;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.SQLException;
+
+public class ReplicaReadJpaDialect extends HibernateJpaDialect {
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws SQLException {
+        Object transactionData = super.beginTransaction(entityManager, definition);
+        if (definition.isReadOnly()) {
+            bypassCachesOnReplica(entityManager);
+        }
+        return transactionData;
+    }
+
+    public void initializeEntityManager(EntityManager entityManager) {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            bypassCachesOnReplica(entityManager);
+        }
+    }
+
+    private static void bypassCachesOnReplica(EntityManager entityManager) {
+        if (!ReplicaRoutingContext.isPrimaryRequired()) {
+            entityManager.setProperty(SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE, CacheRetrieveMode.BYPASS);
+            entityManager.setProperty(SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+        }
+    }
+}
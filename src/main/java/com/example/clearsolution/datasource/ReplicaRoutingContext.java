@@ -0,0 +1,35 @@
+package com.example.clearsolution.datasource;
+
+import java.util.function.Supplier;
+
+public final class ReplicaRoutingContext {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private ReplicaRoutingContext() {
+    }
+
+    public static void requirePrimary() {
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+    }
+
+    public static boolean isPrimaryRequired() {
+        return PRIMARY_REQUIRED.get() != null;
+    }
+
+    public static void clear() {
+        PRIMARY_REQUIRED.remove();
+    }
+
+    public static <T> T onPrimary(Supplier<T> read) {
+        boolean wasPrimaryRequired = isPrimaryRequired();
+        requirePrimary();
+        try {
+            return read.get();
+        } finally {
+            if (!wasPrimaryRequired) {
+                clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.clearsolution.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpdatedUser {
+    private User user;
+
+    private LocalDate previousBirthDate;
+}
@@ -1,5 +1,7 @@
 package com.example.clearsolution.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotNull;
@@ -9,20 +11,29 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.format.annotation.DateTimeFormat;
 
 
 import java.time.LocalDate;
+import java.time.MonthDay;
 
 @Data
 @Entity
+@Cacheable
+@org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_birth_date", columnList = "birthDate, id"),
+        @Index(name = "idx_users_email", columnList = "email", unique = true),
+        @Index(name = "idx_users_birth_month_day", columnList = "birthMonthDay")
+})
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private int id;
 
     @Email(message = "Please enter a correct email address",
@@ -45,4 +56,21 @@ public class User {
     @Pattern(regexp = "\\d{10}",
             message = "Phone number must contain 10 digits")
     private String phoneNumber;
+
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private long version;
+
+    @JsonIgnore
+    private Short birthMonthDay;
+
+    @PrePersist
+    @PreUpdate
+    void updateBirthMonthDay() {
+        birthMonthDay = birthDate != null ? toBirthMonthDay(MonthDay.from(birthDate)) : null;
+    }
+
+    public static short toBirthMonthDay(MonthDay monthDay) {
+        return (short) (monthDay.getMonthValue() * 100 + monthDay.getDayOfMonth());
+    }
 }
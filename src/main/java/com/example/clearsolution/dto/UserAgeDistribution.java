@@ -0,0 +1,32 @@
+package com.example.clearsolution.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserAgeDistribution {
+    private long users;
+
+    private List<AgeBucket> ageBuckets;
+
+    private Map<Integer, Long> birthYears;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AgeBucket {
+        private int fromAge;
+
+        private int toAge;
+
+        private long users;
+    }
+}
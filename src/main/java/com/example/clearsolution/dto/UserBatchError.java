@@ -0,0 +1,18 @@
+package com.example.clearsolution.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBatchError {
+    private int index;
+
+    private List<String> messages;
+}
@@ -0,0 +1,28 @@
+package com.example.clearsolution.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserChange {
+    private Type type;
+
+    private int userId;
+
+    private User user;
+
+    @JsonIgnore
+    private LocalDate previousBirthDate;
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+}
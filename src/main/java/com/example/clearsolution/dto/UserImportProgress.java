@@ -0,0 +1,28 @@
+package com.example.clearsolution.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportProgress {
+    private long rows;
+
+    private long created;
+
+    private long failed;
+
+    private long rowsPerSecond;
+
+    private List<UserBatchError> errors;
+
+    private boolean done;
+
+    private String message;
+}
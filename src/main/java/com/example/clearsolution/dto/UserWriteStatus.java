@@ -0,0 +1,24 @@
+package com.example.clearsolution.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserWriteStatus {
+    private String trackingId;
+
+    private State state;
+
+    private Integer userId;
+
+    private String message;
+
+    public enum State {
+        QUEUED, COMMITTED, FAILED
+    }
+}
@@ -1,7 +1,13 @@
 package com.example.clearsolution.exception;
 
+import org.springframework.http.HttpStatus;
+
 public class ClearSolutionException extends RuntimeException{
     public ClearSolutionException(String message) {
-        super(message);
+        super(message, null, false, false);
+    }
+
+    public HttpStatus getStatus() {
+        return HttpStatus.BAD_REQUEST;
     }
 }
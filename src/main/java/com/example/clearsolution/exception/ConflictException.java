@@ -0,0 +1,14 @@
+package com.example.clearsolution.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class ConflictException extends ClearSolutionException {
+    public ConflictException(String message) {
+        super(message);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.CONFLICT;
+    }
+}
@@ -1,50 +1,125 @@
 package com.example.clearsolution.exception;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+@Slf4j
 @ControllerAdvice
-public class CustomValidationExceptionHandler {
+@RequiredArgsConstructor
+public class CustomValidationExceptionHandler extends ResponseEntityExceptionHandler {
 
-    @ExceptionHandler(MethodArgumentNotValidException.class)
+    private static final int MAX_PRECOMPUTED_BODIES = 256;
+    private static final String EMAIL_INDEX = "idx_users_email";
+
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    private final Map<List<String>, byte[]> validationBodies = new ConcurrentHashMap<>();
+
+    @Override
     protected ResponseEntity<Object> handleMethodArgumentNotValid(
-            MethodArgumentNotValidException ex) {
+            MethodArgumentNotValidException ex, HttpHeaders headers,
+            HttpStatusCode status, WebRequest request) {
+        countError(ex);
+
+        List<FieldError> fieldErrors = new ArrayList<>(ex.getBindingResult().getFieldErrors());
+        fieldErrors.sort(Comparator.comparing(FieldError::getField));
 
         List<String> errors = new ArrayList<>();
-        for (FieldError error : ex.getBindingResult().getFieldErrors()) {
+        for (FieldError error : fieldErrors) {
             errors.add(error.getDefaultMessage());
         }
 
-        Map<String, Object> body = new HashMap<>();
-        body.put("message", errors);
-
-        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+        return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_PROBLEM_JSON)
+                .body(validationBody(errors));
     }
 
     @ExceptionHandler(ClearSolutionException.class)
     protected ResponseEntity<Object> handleClearSolutionException(ClearSolutionException ex) {
-        Map<String, Object> body = new HashMap<>();
-        body.put("message", ex.getMessage());
+        countError(ex);
+        return problem(ex.getStatus(), ex.getMessage());
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    protected ResponseEntity<Object> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        countError(ex);
+        return problem(HttpStatus.PRECONDITION_FAILED, "User has been modified by another request");
+    }
 
-        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    protected ResponseEntity<Object> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        countError(ex);
+        String cause = String.valueOf(ex.getMostSpecificCause().getMessage());
+        return problem(HttpStatus.CONFLICT, cause.contains(EMAIL_INDEX)
+                ? "Email is already taken"
+                : "Request conflicts with existing data");
     }
 
     @ExceptionHandler(Exception.class)
     protected ResponseEntity<Object> handleException(Exception ex) {
+        countError(ex);
+        log.error("Unexpected error", ex);
+        return problem(HttpStatus.INTERNAL_SERVER_ERROR, "Unexpected error");
+    }
 
-        Map<String, Object> body = new HashMap<>();
-        body.put("message", ex.getMessage());
+    @Override
+    protected ResponseEntity<Object> handleExceptionInternal(
+            Exception ex, Object body, HttpHeaders headers,
+            HttpStatusCode statusCode, WebRequest request) {
+        countError(ex);
+        return super.handleExceptionInternal(ex, body, headers, statusCode, request);
+    }
 
-        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+    private byte[] validationBody(List<String> errors) {
+        byte[] body = validationBodies.get(errors);
+        if (body == null) {
+            ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(
+                    HttpStatus.BAD_REQUEST, "Invalid request content.");
+            problemDetail.setProperty("message", errors);
+            try {
+                body = objectMapper.writeValueAsBytes(problemDetail);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+            if (validationBodies.size() < MAX_PRECOMPUTED_BODIES) {
+                validationBodies.putIfAbsent(errors, body);
+            }
+        }
+        return body;
     }
-}
 
+    private ResponseEntity<Object> problem(HttpStatus status, String message) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(status, message);
+        problemDetail.setProperty("message", message);
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_PROBLEM_JSON)
+                .body(problemDetail);
+    }
+
+    private void countError(Exception ex) {
+        meterRegistry.counter("api.errors", "exception", ex.getClass().getSimpleName()).increment();
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.clearsolution.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class PreconditionFailedException extends ClearSolutionException {
+    public PreconditionFailedException(Integer userId) {
+        super(String.format("User %s has been modified by another request", userId));
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.PRECONDITION_FAILED;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.clearsolution.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class TooManyRequestsException extends ClearSolutionException {
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.TOO_MANY_REQUESTS;
+    }
+}
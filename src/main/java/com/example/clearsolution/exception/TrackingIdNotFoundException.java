@@ -0,0 +1,14 @@
+package com.example.clearsolution.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class TrackingIdNotFoundException extends ClearSolutionException {
+    public TrackingIdNotFoundException(String trackingId) {
+        super(String.format("Can not find write by tracking id: %s", trackingId));
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.NOT_FOUND;
+    }
+}
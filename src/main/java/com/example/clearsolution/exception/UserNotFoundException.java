@@ -0,0 +1,18 @@
+package com.example.clearsolution.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class UserNotFoundException extends ClearSolutionException {
+    public UserNotFoundException(Integer userId) {
+        super(String.format("Can not find user by id: %s", userId));
+    }
+
+    public UserNotFoundException(String email) {
+        super(String.format("Can not find user by email: %s", email));
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.NOT_FOUND;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.clearsolution.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> STATEMENTS = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.get()[0]++;
+        return sql;
+    }
+
+    public static int reset() {
+        int[] statements = STATEMENTS.get();
+        int count = statements[0];
+        statements[0] = 0;
+        return count;
+    }
+}
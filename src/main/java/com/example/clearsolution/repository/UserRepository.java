@@ -1,15 +1,64 @@
 package com.example.clearsolution.repository;
 
+import com.example.clearsolution.dto.BirthDateCount;
 import com.example.clearsolution.dto.User;
+import com.example.clearsolution.dto.UserSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Integer> {
+public interface UserRepository extends JpaRepository<User, Integer>, UserRepositoryCustom {
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<User> findByBirthDateBetween(LocalDate startDate, LocalDate endDate);
 
-}
\ No newline at end of file
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<User> findByBirthDateBetweenOrderByBirthDateAscIdAsc(LocalDate startDate, LocalDate endDate);
+
+    List<User> findByIdGreaterThanOrderByIdAsc(int after, Pageable pageable);
+
+    List<User> findByBirthDateBetweenAndIdGreaterThanOrderByIdAsc(LocalDate startDate,
+                                                                  LocalDate endDate,
+                                                                  int after,
+                                                                  Pageable pageable);
+
+    @Query("select new com.example.clearsolution.dto.UserSummary(u.id, u.firstName, u.lastName, u.birthDate) "
+            + "from User u where u.birthDate between :startDate and :endDate")
+    List<UserSummary> findSummariesByBirthDateBetween(LocalDate startDate, LocalDate endDate, Pageable pageable);
+
+    long countByBirthDateBetween(LocalDate startDate, LocalDate endDate);
+
+    List<User> findByBirthMonthDayBetween(short from, short to);
+
+    @Query("select u from User u where u.birthMonthDay >= :from or u.birthMonthDay <= :to")
+    List<User> findByBirthMonthDayAcrossYearEnd(short from, short to);
+
+    Optional<User> findByEmail(String email);
+
+    boolean existsByEmail(String email);
+
+    boolean existsByEmailAndIdNot(String email, int id);
+
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findTakenEmails(Collection<String> emails);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("select u.email from User u")
+    Stream<String> streamAllEmails();
+
+    @Query("select new com.example.clearsolution.dto.BirthDateCount(u.birthDate, count(u)) "
+            + "from User u where u.birthDate is not null group by u.birthDate")
+    List<BirthDateCount> countUsersPerBirthDate();
+
+}
@@ -0,0 +1,36 @@
+package com.example.clearsolution.repository;
+
+import com.example.clearsolution.dto.DeletedUser;
+import com.example.clearsolution.dto.UpdatedUser;
+import com.example.clearsolution.dto.User;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public interface UserRepositoryCustom {
+
+    Set<String> SELECTABLE_FIELDS = Set.of(
+            "id", "email", "firstName", "lastName", "birthDate", "address", "phoneNumber", "version");
+
+    Optional<UpdatedUser> updateFields(int id, Map<String, Object> fields, Set<Long> expectedVersions);
+
+    Optional<DeletedUser> deleteUserById(int id);
+
+    List<DeletedUser> deleteUsersByIdIn(Collection<Integer> ids);
+
+    List<DeletedUser> deleteUsersByBirthDateBetween(LocalDate startDate, LocalDate endDate, int limit);
+
+    List<Map<String, Object>> findFields(List<String> fields);
+
+    List<Map<String, Object>> findFieldsByBirthDateBetween(List<String> fields, LocalDate startDate, LocalDate endDate);
+
+    Stream<User> streamAll();
+
+    List<LocalDate> findPartitionBounds();
+
+}
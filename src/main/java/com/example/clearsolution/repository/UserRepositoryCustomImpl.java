@@ -0,0 +1,226 @@
+package com.example.clearsolution.repository;
+
+import com.example.clearsolution.dto.DeletedUser;
+import com.example.clearsolution.dto.UpdatedUser;
+import com.example.clearsolution.dto.User;
+import jakarta.persistence.CacheRetrieveMode;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.StringJoiner;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    private static final String[] QUERY_SPACES = {"users"};
+    private static final Pattern PARTITION_BOUND = Pattern.compile("'(\\d{4}-\\d{2}-\\d{2})'");
+
+    private static final Map<String, Column> COLUMNS = Map.of(
+            "email", new Column("email", String.class),
+            "firstName", new Column("first_name", String.class),
+            "lastName", new Column("last_name", String.class),
+            "birthDate", new Column("birth_date", LocalDate.class),
+            "address", new Column("address", String.class),
+            "phoneNumber", new Column("phone_number", String.class));
+
+    private final EntityManager entityManager;
+
+    @Override
+    @Transactional
+    @SuppressWarnings("unchecked")
+    public Optional<UpdatedUser> updateFields(int id, Map<String, Object> fields, Set<Long> expectedVersions) {
+        StringJoiner assignments = new StringJoiner(", ");
+        fields.keySet().forEach(field -> assignments.add(column(field).name() + " = :" + field));
+        if (fields.containsKey("birthDate")) {
+            assignments.add("birth_month_day = :birthMonthDay");
+        }
+        assignments.add("version = version + 1");
+
+        String sql = "update users u set " + assignments
+                + " from (select id, birth_date from users where id = :id for update) old"
+                + " where u.id = old.id"
+                + (expectedVersions != null ? " and u.version in :versions" : "")
+                + " returning u.*, old.birth_date as previous_birth_date";
+        NativeQuery<Object[]> query = entityManager
+                .createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addEntity("u", User.class)
+                .addScalar("previous_birth_date", LocalDate.class);
+        fields.forEach((field, value) -> bind(query, field, value));
+        if (fields.get("birthDate") instanceof LocalDate birthDate) {
+            query.setParameter("birthMonthDay", User.toBirthMonthDay(MonthDay.from(birthDate)), Short.class);
+        } else if (fields.containsKey("birthDate")) {
+            query.setParameter("birthMonthDay", null, Short.class);
+        }
+        query.setParameter("id", id);
+        if (expectedVersions != null) {
+            query.setParameterList("versions", expectedVersions);
+        }
+        query.addSynchronizedEntityClass(User.class);
+
+        List<UpdatedUser> updated = query.getResultList().stream()
+                .map(row -> new UpdatedUser((User) row[0], (LocalDate) row[1]))
+                .toList();
+        evictAfterWrite(List.of(id));
+        return updated.stream().findFirst();
+    }
+
+    @Override
+    @Transactional
+    public Optional<DeletedUser> deleteUserById(int id) {
+        return delete("id = :id", query -> query.setParameter("id", id)).stream().findFirst();
+    }
+
+    @Override
+    @Transactional
+    public List<DeletedUser> deleteUsersByIdIn(Collection<Integer> ids) {
+        return delete("id in :ids", query -> query.setParameterList("ids", ids));
+    }
+
+    @Override
+    @Transactional
+    public List<DeletedUser> deleteUsersByBirthDateBetween(LocalDate startDate, LocalDate endDate, int limit) {
+        return delete("id in (select id from users where birth_date between :startDate and :endDate limit :limit)",
+                query -> query
+                        .setParameter("startDate", startDate)
+                        .setParameter("endDate", endDate)
+                        .setParameter("limit", limit));
+    }
+
+    @Override
+    public List<Map<String, Object>> findFields(List<String> fields) {
+        return toRows(fields, selectFields(fields, ""));
+    }
+
+    @Override
+    public List<Map<String, Object>> findFieldsByBirthDateBetween(List<String> fields,
+                                                                  LocalDate startDate, LocalDate endDate) {
+        TypedQuery<Tuple> query = selectFields(fields, " where u.birthDate between :startDate and :endDate");
+        query.setParameter("startDate", startDate);
+        query.setParameter("endDate", endDate);
+        return toRows(fields, query);
+    }
+
+    @Override
+    public Stream<User> streamAll() {
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode cacheMode = session.getCacheMode();
+        session.setCacheMode(CacheMode.IGNORE);
+        return entityManager.createQuery("select u from User u order by u.id", User.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, 1000)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE, CacheRetrieveMode.BYPASS)
+                .setHint(SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.BYPASS)
+                .getResultStream()
+                .onClose(() -> session.setCacheMode(cacheMode));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<LocalDate> findPartitionBounds() {
+        List<String> bounds = entityManager
+                .createNativeQuery("select pg_get_expr(c.relpartbound, c.oid) from pg_partition_tree('users') t "
+                        + "join pg_class c on c.oid = t.relid where t.isleaf")
+                .getResultList();
+        SortedSet<LocalDate> dates = new TreeSet<>();
+        for (String bound : bounds) {
+            Matcher matcher = PARTITION_BOUND.matcher(bound);
+            while (matcher.find()) {
+                dates.add(LocalDate.parse(matcher.group(1)));
+            }
+        }
+        return List.copyOf(dates);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<DeletedUser> delete(String where, Consumer<NativeQuery<Object[]>> binder) {
+        NativeQuery<Object[]> query = entityManager
+                .createNativeQuery("delete from users where " + where + " returning id, birth_date")
+                .unwrap(NativeQuery.class)
+                .addScalar("id", Integer.class)
+                .addScalar("birth_date", LocalDate.class);
+        binder.accept(query);
+        query.addSynchronizedEntityClass(User.class);
+        List<DeletedUser> deleted = query.getResultList().stream()
+                .map(row -> new DeletedUser((Integer) row[0], (LocalDate) row[1]))
+                .toList();
+        evictAfterWrite(deleted.stream().map(DeletedUser::getId).toList());
+        return deleted;
+    }
+
+    private void evictAfterWrite(Collection<Integer> ids) {
+        EventSource session = entityManager.unwrap(EventSource.class);
+        CacheImplementor cache = session.getFactory().getCache();
+        cache.getTimestampsCache().preInvalidate(QUERY_SPACES, session);
+        ids.forEach(id -> cache.evictEntityData(User.class, id));
+        session.getActionQueue().registerProcess((success, completedSession) -> {
+            cache.getTimestampsCache().invalidate(QUERY_SPACES, completedSession);
+            ids.forEach(id -> cache.evictEntityData(User.class, id));
+        });
+    }
+
+    private TypedQuery<Tuple> selectFields(List<String> fields, String where) {
+        StringJoiner select = new StringJoiner(", ");
+        for (String field : fields) {
+            if (!SELECTABLE_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Field can not be selected: " + field);
+            }
+            select.add("u." + field + " as " + field);
+        }
+        return entityManager.createQuery("select " + select + " from User u" + where, Tuple.class);
+    }
+
+    private static List<Map<String, Object>> toRows(List<String> fields, TypedQuery<Tuple> query) {
+        return query.getResultList().stream()
+                .map(tuple -> {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    for (int i = 0; i < fields.size(); i++) {
+                        row.put(fields.get(i), tuple.get(i));
+                    }
+                    return row;
+                })
+                .toList();
+    }
+
+    private static Column column(String field) {
+        Column column = COLUMNS.get(field);
+        if (column == null) {
+            throw new IllegalArgumentException("Field can not be updated: " + field);
+        }
+        return column;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void bind(NativeQuery<Object[]> query, String field, Object value) {
+        Class<T> type = (Class<T>) column(field).type();
+        query.setParameter(field, type.cast(value), type);
+    }
+
+    private record Column(String name, Class<?> type) {
+    }
+}
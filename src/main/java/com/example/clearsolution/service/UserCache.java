@@ -0,0 +1,67 @@
+package com.example.clearsolution.service;
+
+import com.example.clearsolution.dto.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static com.example.clearsolution.config.CacheConfig.USERS_CACHE;
+
+@Component
+public class UserCache {
+
+    private final Cache<Object, Object> users;
+
+    @SuppressWarnings("unchecked")
+    public UserCache(CacheManager cacheManager) {
+        this.users = (Cache<Object, Object>) cacheManager.getCache(USERS_CACHE).getNativeCache();
+    }
+
+    public Optional<User> get(Integer userId, Supplier<Optional<User>> loader) {
+        Object cached = users.getIfPresent(userId);
+        if (cached instanceof User user) {
+            return Optional.of(user);
+        }
+        Optional<User> loaded = loader.get();
+        loaded.ifPresent(user -> afterCommit(() -> users.asMap().merge(userId, user, UserCache::newer)));
+        return loaded;
+    }
+
+    public void evict(User user) {
+        afterCommit(() -> users.put(user.getId(), new Evicted(user.getVersion())));
+    }
+
+    public void evictDeleted(Collection<Integer> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> userIds.forEach(userId -> users.put(userId, new Evicted(Long.MAX_VALUE))));
+    }
+
+    private static Object newer(Object current, Object loaded) {
+        long currentVersion = current instanceof User user ? user.getVersion() : ((Evicted) current).minVersion();
+        return ((User) loaded).getVersion() >= currentVersion ? loaded : current;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record Evicted(long minVersion) {
+    }
+}
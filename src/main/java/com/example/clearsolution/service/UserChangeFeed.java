@@ -0,0 +1,192 @@
+package com.example.clearsolution.service;
+
+import com.example.clearsolution.dto.UserChange;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@Component
+public class UserChangeFeed {
+
+    private final String epoch = UUID.randomUUID().toString().substring(0, 8);
+    private final ExecutorService executor;
+    private final SequencedChange[] buffer;
+    private final int subscriberQueueSize;
+    private final long timeoutMillis;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private long sequence;
+
+    public UserChangeFeed(MeterRegistry meterRegistry,
+                          @Value("${user.changes.buffer-size}") int bufferSize,
+                          @Value("${user.changes.subscriber-queue-size}") int subscriberQueueSize,
+                          @Value("${user.changes.sender.threads}") int senderThreads,
+                          @Value("${user.changes.sender.queue-size}") int senderQueueSize,
+                          @Value("${spring.mvc.async.request-timeout}") Duration timeout) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry,
+                new ThreadPoolExecutor(senderThreads, senderThreads, 0, TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(senderQueueSize),
+                        runnable -> {
+                            Thread thread = new Thread(runnable, "user-changes-" + threadNumber.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        }),
+                "user.changes.sender");
+        this.buffer = new SequencedChange[bufferSize];
+        this.subscriberQueueSize = subscriberQueueSize;
+        this.timeoutMillis = timeout.toMillis();
+        meterRegistry.gauge("user.changes.subscribers", subscribers, Set::size);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onUserChange(UserChange change) {
+        SequencedChange sequenced = new SequencedChange(++sequence, change);
+        buffer[(int) (sequence % buffer.length)] = sequenced;
+        subscribers.forEach(subscriber -> subscriber.offer(sequenced));
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber;
+        synchronized (this) {
+            List<SequencedChange> missed = lastEventId != null ? since(lastEventId) : List.of();
+            if (missed == null) {
+                missed = List.of(new SequencedChange(sequence, null));
+            }
+            subscriber = new Subscriber(emitter, subscriberQueueSize + missed.size());
+            missed.forEach(subscriber.queue::offer);
+            subscribers.add(subscriber);
+        }
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscriber.schedule();
+        return emitter;
+    }
+
+    String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    synchronized List<SequencedChange> since(String lastEventId) {
+        String prefix = epoch + "-";
+        if (!lastEventId.startsWith(prefix)) {
+            return null;
+        }
+        long lastSequence;
+        try {
+            lastSequence = Long.parseLong(lastEventId.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return since(lastSequence);
+    }
+
+    private List<SequencedChange> since(long lastEventId) {
+        long oldest = Math.max(1, sequence - buffer.length + 1);
+        if (lastEventId > sequence || lastEventId + 1 < oldest) {
+            return null;
+        }
+        List<SequencedChange> missed = new ArrayList<>((int) (sequence - lastEventId));
+        for (long next = lastEventId + 1; next <= sequence; next++) {
+            missed.add(buffer[(int) (next % buffer.length)]);
+        }
+        return missed;
+    }
+
+    record SequencedChange(long sequence, UserChange change) {
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<SequencedChange> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean overflowed;
+
+        private Subscriber(SseEmitter emitter, int capacity) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        private void offer(SequencedChange change) {
+            if (overflowed) {
+                return;
+            }
+            if (!queue.offer(change)) {
+                overflowed = true;
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    log.debug("Closing a change feed subscriber, all senders are busy");
+                    subscribers.remove(this);
+                    emitter.complete();
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                SequencedChange change;
+                while ((change = queue.poll()) != null) {
+                    emitter.send(toEvent(change));
+                }
+                if (overflowed) {
+                    log.debug("Closing a change feed subscriber that fell {} events behind", subscriberQueueSize);
+                    subscribers.remove(this);
+                    emitter.complete();
+                    return;
+                }
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(this);
+                return;
+            }
+            scheduled.set(false);
+            if (!queue.isEmpty() || overflowed) {
+                schedule();
+            }
+        }
+
+        private SseEmitter.SseEventBuilder toEvent(SequencedChange change) {
+            SseEmitter.SseEventBuilder event = SseEmitter.event().id(eventId(change.sequence()));
+            if (change.change() == null) {
+                return event.name("reset").data("Changes since Last-Event-ID are no longer buffered");
+            }
+            return event.name(change.change().getType().name().toLowerCase())
+                    .data(change.change(), MediaType.APPLICATION_JSON);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.clearsolution.service;
+
+import com.example.clearsolution.dto.User;
+import com.example.clearsolution.dto.UserBatchError;
+import com.example.clearsolution.dto.UserBatchResult;
+import com.example.clearsolution.dto.UserImportProgress;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvFactory;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserImportService {
+
+    private static final String EMAIL_INDEX = "idx_users_email";
+    private static final String NOT_SAVED = "Not saved, the import was aborted";
+
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${user.import.chunk-size}")
+    private int chunkSize;
+
+    public UserImportProgress importUsers(InputStream input, MediaType format,
+                                          Consumer<UserImportProgress> progressListener) throws IOException {
+        Import state = new Import(System.nanoTime());
+        try (MappingIterator<User> records = reader(format).readValues(input)) {
+            long lastFailedOffset = -1;
+            while (true) {
+                try {
+                    if (!records.hasNextValue()) {
+                        break;
+                    }
+                    state.add(records.nextValue());
+                } catch (JsonProcessingException e) {
+                    long offset = offset(records.getCurrentLocation());
+                    if (offset == lastFailedOffset) {
+                        return state.flush()
+                                ? state.progress(true, String.format(
+                                        "Import aborted, input can not be parsed after row %s", state.rows))
+                                : state.aborted();
+                    }
+                    lastFailedOffset = offset;
+                    state.errors.add(new UserBatchError(state.rows++,
+                            List.of("Malformed record: " + e.getOriginalMessage())));
+                }
+                if (state.rows - state.flushedRows == chunkSize) {
+                    if (!state.flush()) {
+                        return state.aborted();
+                    }
+                    progressListener.accept(state.progress(false, null));
+                }
+            }
+        }
+        return state.flush() ? state.progress(true, null) : state.aborted();
+    }
+
+    private ObjectReader reader(MediaType format) {
+        if (MediaType.APPLICATION_NDJSON.isCompatibleWith(format)) {
+            return objectMapper.readerFor(User.class);
+        }
+        return objectMapper.copyWith(new CsvFactory())
+                .readerFor(User.class)
+                .with(CsvSchema.emptySchema().withHeader())
+                .with(CsvParser.Feature.EMPTY_STRING_AS_NULL);
+    }
+
+    private static long offset(JsonLocation location) {
+        return Math.max(location.getByteOffset(), location.getCharOffset());
+    }
+
+    private final class Import {
+        private final long started;
+        private List<User> chunk = new ArrayList<>(chunkSize);
+        private List<Integer> chunkRows = new ArrayList<>(chunkSize);
+        private List<UserBatchError> errors = new ArrayList<>();
+        private int rows;
+        private int flushedRows;
+        private int abortedAtRow;
+        private long created;
+        private long failed;
+
+        private Import(long started) {
+            this.started = started;
+        }
+
+        private void add(User user) {
+            chunk.add(user);
+            chunkRows.add(rows++);
+        }
+
+        private boolean flush() {
+            boolean saved = true;
+            if (!chunk.isEmpty()) {
+                int unsaved = 0;
+                try {
+                    try {
+                        addResult(userService.createUsers(chunk), chunkRows);
+                    } catch (DataIntegrityViolationException e) {
+                        for (; unsaved < chunk.size(); unsaved++) {
+                            saveRow(chunk.get(unsaved), chunkRows.get(unsaved));
+                        }
+                    }
+                } catch (DataAccessException e) {
+                    abortedAtRow = chunkRows.get(unsaved);
+                    log.error("Import rows from row {} on could not be saved", abortedAtRow, e);
+                    chunkRows.subList(unsaved, chunkRows.size())
+                            .forEach(row -> errors.add(new UserBatchError(row, List.of(NOT_SAVED))));
+                    saved = false;
+                }
+                chunk = new ArrayList<>(chunkSize);
+                chunkRows = new ArrayList<>(chunkSize);
+            }
+            failed += errors.size();
+            flushedRows = rows;
+            return saved;
+        }
+
+        private void saveRow(User user, int row) {
+            try {
+                addResult(userService.createUsers(List.of(user)), List.of(row));
+            } catch (DataIntegrityViolationException e) {
+                errors.add(new UserBatchError(row, List.of(
+                        String.valueOf(e.getMostSpecificCause().getMessage()).contains(EMAIL_INDEX)
+                                ? "Email is already taken"
+                                : "Row conflicts with existing data")));
+            }
+        }
+
+        private void addResult(UserBatchResult result, List<Integer> resultRows) {
+            created += result.getCreatedIds().size();
+            for (UserBatchError error : result.getErrors()) {
+                errors.add(new UserBatchError(resultRows.get(error.getIndex()), error.getMessages()));
+            }
+        }
+
+        private UserImportProgress aborted() {
+            return progress(true, String.format(
+                    "Import aborted, rows from row %s on were not saved", abortedAtRow));
+        }
+
+        private UserImportProgress progress(boolean done, String message) {
+            long elapsedNanos = Math.max(1, System.nanoTime() - started);
+            UserImportProgress progress = new UserImportProgress(rows, created, failed,
+                    rows * 1_000_000_000L / elapsedNanos, errors, done, message);
+            errors = new ArrayList<>();
+            return progress;
+        }
+    }
+}
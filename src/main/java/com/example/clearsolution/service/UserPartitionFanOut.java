@@ -0,0 +1,126 @@
+package com.example.clearsolution.service;
+
+import com.example.clearsolution.datasource.ReplicaRoutingContext;
+import com.example.clearsolution.dto.User;
+import com.example.clearsolution.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "user.partitioning.enabled", havingValue = "true")
+public class UserPartitionFanOut {
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final List<LocalDate> partitionBounds;
+    private final ExecutorService executor;
+
+    public UserPartitionFanOut(UserRepository userRepository,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${user.partitioning.fan-out.threads}") int threads,
+                               @Value("${user.partitioning.fan-out.queue-size}") int queueSize) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.partitionBounds = userRepository.findPartitionBounds();
+        if (partitionBounds.isEmpty()) {
+            throw new IllegalStateException("user.partitioning.enabled is set, but users has no range partitions");
+        }
+        log.info("Splitting birth date ranges on {} partition bounds from {} to {}",
+                partitionBounds.size(), partitionBounds.get(0), partitionBounds.get(partitionBounds.size() - 1));
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry,
+                new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(queueSize),
+                        runnable -> {
+                            Thread thread = new Thread(runnable, "user-partition-" + threadNumber.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        },
+                        new ThreadPoolExecutor.CallerRunsPolicy()),
+                "user.partition.fan-out");
+    }
+
+    public List<User> findByBirthDateBetween(LocalDate startDate, LocalDate endDate) {
+        List<BirthDateRange> ranges = split(startDate, endDate);
+        boolean primaryRequired = ReplicaRoutingContext.isPrimaryRequired();
+        if (ranges.size() <= 1) {
+            return ranges.isEmpty() ? List.of() : find(ranges.get(0), primaryRequired);
+        }
+
+        List<CompletableFuture<List<User>>> parts = ranges.stream()
+                .map(range -> CompletableFuture.supplyAsync(() -> find(range, primaryRequired), executor))
+                .toList();
+        List<User> users = new ArrayList<>();
+        for (CompletableFuture<List<User>> part : parts) {
+            try {
+                users.addAll(part.join());
+            } catch (CompletionException e) {
+                parts.forEach(pending -> pending.cancel(false));
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        return users;
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    List<BirthDateRange> split(LocalDate startDate, LocalDate endDate) {
+        List<BirthDateRange> ranges = new ArrayList<>();
+        LocalDate from = startDate;
+        for (LocalDate bound : partitionBounds) {
+            if (bound.isAfter(endDate)) {
+                break;
+            }
+            if (bound.isAfter(from)) {
+                ranges.add(new BirthDateRange(from, bound.minusDays(1)));
+                from = bound;
+            }
+        }
+        if (!from.isAfter(endDate)) {
+            ranges.add(new BirthDateRange(from, endDate));
+        }
+        return ranges;
+    }
+
+    private List<User> find(BirthDateRange range, boolean primaryRequired) {
+        boolean wasPrimaryRequired = ReplicaRoutingContext.isPrimaryRequired();
+        if (primaryRequired) {
+            ReplicaRoutingContext.requirePrimary();
+        }
+        try {
+            return transactionTemplate.execute(status ->
+                    userRepository.findByBirthDateBetweenOrderByBirthDateAscIdAsc(range.from(), range.to()));
+        } finally {
+            if (!wasPrimaryRequired) {
+                ReplicaRoutingContext.clear();
+            }
+        }
+    }
+
+    record BirthDateRange(LocalDate from, LocalDate to) {
+    }
+}
@@ -1,15 +1,39 @@
 package com.example.clearsolution.service;
 
 import com.example.clearsolution.dto.User;
+import com.example.clearsolution.dto.UserBatchResult;
+import com.example.clearsolution.dto.UserPage;
+import com.example.clearsolution.dto.UserSummary;
+import org.springframework.data.domain.Sort;
 
 import java.time.LocalDate;
+import java.time.MonthDay;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface UserService {
     User createUser(User user);
-    User updateUser(Integer userId, User updatedUser);
-    User updateUserField(Integer userId, User updatedUser);
-    void deleteUser(Integer userId);
+    UserBatchResult createUsers(List<User> users);
+    User updateUser(Integer userId, User updatedUser, Set<Long> expectedVersions);
+    User updateUserField(Integer userId, User updatedUser, Set<Long> expectedVersions);
+    User mergePatchUser(Integer userId, Map<String, Object> patch, Set<Long> expectedVersions);
+    boolean deleteUser(Integer userId);
+    int deleteUsers(List<Integer> userIds);
+    int deleteUsersByBirthDateRange(LocalDate startDate, LocalDate endDate);
+    User getUser(Integer userId);
+    User getUserByEmail(String email);
     List<User> getUsersByBirthDateRange(LocalDate startDate, LocalDate endDate);
+    List<Map<String, Object>> getUsersByBirthDateRange(LocalDate startDate, LocalDate endDate, List<String> fields);
+    List<UserSummary> getUserSummariesByBirthDateRange(LocalDate startDate, LocalDate endDate,
+                                                       Sort.Direction direction, int limit);
+    long countUsersByBirthDateRange(LocalDate startDate, LocalDate endDate);
+    List<User> getUsersByBirthday(MonthDay from, MonthDay to);
     List<User> getListOfUsers();
+    List<Map<String, Object>> getListOfUsers(List<String> fields);
+    UserPage getUsersPage(Integer after, int limit);
+    UserPage getUsersByBirthDateRangePage(LocalDate startDate, LocalDate endDate,
+                                          Integer after, int limit);
+    void exportUsers(Consumer<User> consumer);
 }
@@ -1,15 +1,47 @@
 package com.example.clearsolution.service;
 
+import com.example.clearsolution.datasource.ReplicaRoutingContext;
+import com.example.clearsolution.dto.DeletedUser;
+import com.example.clearsolution.dto.UpdatedUser;
 import com.example.clearsolution.dto.User;
+import com.example.clearsolution.dto.UserBatchError;
+import com.example.clearsolution.dto.UserBatchResult;
+import com.example.clearsolution.dto.UserChange;
+import com.example.clearsolution.dto.UserPage;
+import com.example.clearsolution.dto.UserSummary;
 import com.example.clearsolution.exception.ClearSolutionException;
+import com.example.clearsolution.exception.ConflictException;
+import com.example.clearsolution.exception.PreconditionFailedException;
+import com.example.clearsolution.exception.UserNotFoundException;
 import com.example.clearsolution.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.time.Period;
+import java.time.MonthDay;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.springframework.beans.BeanUtils;
 
@@ -17,15 +49,53 @@ import org.springframework.beans.BeanUtils;
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
 
+    private static final String EMAIL_TAKEN = "Email is already taken";
+
+    private static final Map<String, Class<?>> PATCHABLE_FIELDS = Map.of(
+            "email", String.class,
+            "firstName", String.class,
+            "lastName", String.class,
+            "birthDate", LocalDate.class,
+            "address", String.class,
+            "phoneNumber", String.class);
+
     private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final EmailFilter emailFilter;
+    private final UserCache userCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${user.age.limit}")
     private int userAgeLimit;
 
+    private volatile AgeCutoff ageCutoff;
+
+    @Value("${user.page.max-limit}")
+    private int maxPageLimit;
+
+    @Value("${user.batch.max-size}")
+    private int maxBatchSize;
+
+    @Value("${user.delete.chunk-size}")
+    private int deleteChunkSize;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}")
+    private int jdbcBatchSize;
+
+    @Autowired(required = false)
+    private UserPartitionFanOut partitionFanOut;
+
     @Override
     public User createUser(User user) {
         if (isUserAboveAgeLimit(user.getBirthDate())) {
-            return userRepository.save(user);
+            if (isEmailTaken(user.getEmail())) {
+                throw new ConflictException(EMAIL_TAKEN);
+            }
+            User savedUser = userRepository.save(user);
+            emailFilter.add(savedUser.getEmail());
+            publish(UserChange.Type.CREATED, savedUser);
+            return savedUser;
         } else {
             throw new ClearSolutionException
                     (String.format("User must be older %s ", userAgeLimit));
@@ -33,63 +103,397 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public User updateUser(Integer userId, User updatedUser) {
+    @Transactional
+    public UserBatchResult createUsers(List<User> users) {
+        if (users.size() > maxBatchSize) {
+            throw new ClearSolutionException(
+                    String.format("Batch must not contain more than %s users", maxBatchSize));
+        }
+        List<Integer> createdIds = new ArrayList<>(users.size());
+        List<UserBatchError> errors = new ArrayList<>();
+        Map<Integer, User> chunk = new LinkedHashMap<>();
+        Set<String> batchEmails = new HashSet<>();
+        for (int index = 0; index < users.size(); index++) {
+            User user = users.get(index);
+            List<String> messages = validateNewUser(user);
+            if (messages.isEmpty() && !batchEmails.add(user.getEmail())) {
+                messages.add(EMAIL_TAKEN);
+            }
+            if (!messages.isEmpty()) {
+                errors.add(new UserBatchError(index, messages));
+                continue;
+            }
+            user.setId(0);
+            chunk.put(index, user);
+            if (chunk.size() == jdbcBatchSize) {
+                saveChunk(chunk, createdIds, errors);
+                chunk.clear();
+            }
+        }
+        saveChunk(chunk, createdIds, errors);
+        errors.sort(Comparator.comparingInt(UserBatchError::getIndex));
+        return new UserBatchResult(createdIds, errors);
+    }
+
+    @Override
+    public User updateUser(Integer userId, User updatedUser, Set<Long> expectedVersions) {
         User existingUser = userRepository.findById(userId)
-                .orElseThrow(() ->
-                        new ClearSolutionException(
-                                String.format("Can not find user by is : %s", userId)));
+                .orElseThrow(() -> userNotFound(userId));
+        if (expectedVersions != null && !expectedVersions.contains(existingUser.getVersion())) {
+            throw new PreconditionFailedException(userId);
+        }
 
-        BeanUtils.copyProperties(updatedUser, existingUser, "id");
+        if (!Objects.equals(updatedUser.getEmail(), existingUser.getEmail())
+                && isEmailTakenByOtherUser(updatedUser.getEmail(), userId)) {
+            throw new ConflictException(EMAIL_TAKEN);
+        }
+
+        LocalDate previousBirthDate = existingUser.getBirthDate();
+        BeanUtils.copyProperties(updatedUser, existingUser, "id", "version");
+
+        User savedUser = userRepository.save(existingUser);
+        userCache.evict(savedUser);
+        emailFilter.add(savedUser.getEmail());
+        publish(UserChange.Type.UPDATED, savedUser, previousBirthDate);
+        return savedUser;
+    }
+
+    @Override
+    @Transactional
+    public User updateUserField(Integer userId, User updatedUser, Set<Long> expectedVersions) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        putIfPresent(fields, "address", updatedUser.getAddress());
+        putIfPresent(fields, "email", updatedUser.getEmail());
+        putIfPresent(fields, "birthDate", updatedUser.getBirthDate());
+        putIfPresent(fields, "firstName", updatedUser.getFirstName());
+        putIfPresent(fields, "lastName", updatedUser.getLastName());
+        putIfPresent(fields, "phoneNumber", updatedUser.getPhoneNumber());
+
+        return patchUser(userId, fields, expectedVersions);
+    }
+
+    @Override
+    @Transactional
+    public User mergePatchUser(Integer userId, Map<String, Object> patch, Set<Long> expectedVersions) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        patch.forEach((field, value) -> fields.put(field, toFieldValue(field, value)));
 
-        return userRepository.save(existingUser);
+        return patchUser(userId, fields, expectedVersions);
     }
 
     @Override
-    public User updateUserField(Integer userId, User updatedUser) {
-        User existedUser = userRepository.findById(userId)
-                .orElseThrow(() ->
-                        new ClearSolutionException(
-                                String.format("Can not find user by is : %s", userId)));
-        existedUser.setAddress(updatedUser.getAddress() != null
-                ? updatedUser.getAddress() : existedUser.getAddress());
-        existedUser.setEmail(updatedUser.getEmail() != null
-                ? updatedUser.getEmail() : existedUser.getEmail());
-        existedUser.setBirthDate(updatedUser.getBirthDate() != null
-                && isUserAboveAgeLimit(updatedUser.getBirthDate())
-                ? updatedUser.getBirthDate() : existedUser.getBirthDate());
-        existedUser.setFirstName(updatedUser.getFirstName() != null
-                ? updatedUser.getFirstName() : existedUser.getFirstName());
-        existedUser.setLastName(updatedUser.getLastName() != null
-                ? updatedUser.getLastName() : existedUser.getLastName());
-        existedUser.setPhoneNumber(updatedUser.getPhoneNumber() != null
-                ? updatedUser.getPhoneNumber() : existedUser.getPhoneNumber());
+    public boolean deleteUser(Integer userId) {
+        Optional<DeletedUser> deletedUser = userRepository.deleteUserById(userId);
+        deletedUser.ifPresent(user -> afterDelete(List.of(user)));
+        return deletedUser.isPresent();
+    }
+
+    @Override
+    public int deleteUsers(List<Integer> userIds) {
+        int deleted = 0;
+        for (int from = 0; from < userIds.size(); from += deleteChunkSize) {
+            List<Integer> chunk = userIds.subList(from, Math.min(from + deleteChunkSize, userIds.size()));
+            List<DeletedUser> deletedUsers = userRepository.deleteUsersByIdIn(chunk);
+            afterDelete(deletedUsers);
+            deleted += deletedUsers.size();
+        }
+        return deleted;
+    }
 
-        return userRepository.save(existedUser);
+    @Override
+    public int deleteUsersByBirthDateRange(LocalDate startDate, LocalDate endDate) {
+        int deleted = 0;
+        List<DeletedUser> deletedUsers;
+        do {
+            deletedUsers = userRepository.deleteUsersByBirthDateBetween(startDate, endDate, deleteChunkSize);
+            afterDelete(deletedUsers);
+            deleted += deletedUsers.size();
+        } while (deletedUsers.size() == deleteChunkSize);
+        return deleted;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public User getUser(Integer userId) {
+        return userCache.get(userId, () -> ReplicaRoutingContext.onPrimary(() -> userRepository.findById(userId)))
+                .orElseThrow(() -> userNotFound(userId));
+    }
 
     @Override
-    public void deleteUser(Integer userId) {
-        userRepository.deleteById(userId);
+    @Transactional(readOnly = true)
+    public User getUserByEmail(String email) {
+        return userRepository.findByEmail(email)
+                .orElseThrow(() -> new UserNotFoundException(email));
     }
 
     @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public List<User> getUsersByBirthDateRange(LocalDate startDate, LocalDate endDate) {
+        if (partitionFanOut != null) {
+            return partitionFanOut.findByBirthDateBetween(startDate, endDate);
+        }
         return userRepository.findByBirthDateBetween(startDate, endDate);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getUsersByBirthDateRange(LocalDate startDate, LocalDate endDate,
+                                                              List<String> fields) {
+        return userRepository.findFieldsByBirthDateBetween(validateSelectedFields(fields), startDate, endDate);
+    }
+
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserSummary> getUserSummariesByBirthDateRange(LocalDate startDate, LocalDate endDate,
+                                                              Sort.Direction direction, int limit) {
+        validatePageLimit(limit);
+        Sort sort = Sort.by(direction, "birthDate").and(Sort.by(direction, "id"));
+        return userRepository.findSummariesByBirthDateBetween(startDate, endDate,
+                PageRequest.of(0, limit, sort));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countUsersByBirthDateRange(LocalDate startDate, LocalDate endDate) {
+        return userRepository.countByBirthDateBetween(startDate, endDate);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<User> getUsersByBirthday(MonthDay from, MonthDay to) {
+        short fromMonthDay = User.toBirthMonthDay(from);
+        short toMonthDay = User.toBirthMonthDay(to);
+        return fromMonthDay <= toMonthDay
+                ? userRepository.findByBirthMonthDayBetween(fromMonthDay, toMonthDay)
+                : userRepository.findByBirthMonthDayAcrossYearEnd(fromMonthDay, toMonthDay);
+    }
 
     @Override
+    @Transactional(readOnly = true)
     public List<User> getListOfUsers() {
         return userRepository.findAll();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getListOfUsers(List<String> fields) {
+        return userRepository.findFields(validateSelectedFields(fields));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UserPage getUsersPage(Integer after, int limit) {
+        validatePageLimit(limit);
+        List<User> users = userRepository.findByIdGreaterThanOrderByIdAsc(
+                after != null ? after : 0, PageRequest.of(0, limit + 1));
+        return toPage(users, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UserPage getUsersByBirthDateRangePage(LocalDate startDate, LocalDate endDate,
+                                                 Integer after, int limit) {
+        validatePageLimit(limit);
+        List<User> users = userRepository.findByBirthDateBetweenAndIdGreaterThanOrderByIdAsc(
+                startDate, endDate, after != null ? after : 0, PageRequest.of(0, limit + 1));
+        return toPage(users, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportUsers(Consumer<User> consumer) {
+        try (Stream<User> users = userRepository.streamAll()) {
+            users.forEach(user -> {
+                consumer.accept(user);
+                entityManager.detach(user);
+            });
+        }
+    }
+
+    private List<String> validateSelectedFields(List<String> fields) {
+        List<String> selected = fields.stream()
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .distinct()
+                .toList();
+        if (selected.isEmpty()) {
+            throw new ClearSolutionException("At least one field must be selected");
+        }
+        for (String field : selected) {
+            if (!UserRepository.SELECTABLE_FIELDS.contains(field)) {
+                throw new ClearSolutionException(String.format("Field can not be selected: %s", field));
+            }
+        }
+        return selected;
+    }
+
+    private List<String> validateNewUser(User user) {
+        List<String> messages = new ArrayList<>();
+        validator.validate(user).stream()
+                .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                .map(ConstraintViolation::getMessage)
+                .forEach(messages::add);
+        try {
+            isUserAboveAgeLimit(user.getBirthDate());
+        } catch (ClearSolutionException e) {
+            messages.add(e.getMessage());
+        }
+        return messages;
+    }
+
+    private void saveChunk(Map<Integer, User> chunk, List<Integer> createdIds, List<UserBatchError> errors) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Set<String> takenEmails = new HashSet<>(userRepository.findTakenEmails(
+                chunk.values().stream().map(User::getEmail).toList()));
+        List<User> users = new ArrayList<>(chunk.size());
+        chunk.forEach((index, user) -> {
+            if (takenEmails.contains(user.getEmail())) {
+                errors.add(new UserBatchError(index, List.of(EMAIL_TAKEN)));
+            } else {
+                users.add(user);
+            }
+        });
+        if (users.isEmpty()) {
+            return;
+        }
+        userRepository.saveAll(users);
+        entityManager.flush();
+        users.forEach(user -> {
+            createdIds.add(user.getId());
+            emailFilter.add(user.getEmail());
+            publish(UserChange.Type.CREATED, user);
+        });
+        entityManager.clear();
+    }
+
+    private User patchUser(Integer userId, Map<String, Object> fields, Set<Long> expectedVersions) {
+        fields.forEach(this::validateField);
+        if (fields.isEmpty()) {
+            User existingUser = userRepository.findById(userId)
+                    .orElseThrow(() -> userNotFound(userId));
+            if (expectedVersions != null && !expectedVersions.contains(existingUser.getVersion())) {
+                throw new PreconditionFailedException(userId);
+            }
+            return existingUser;
+        }
+        if (fields.get("email") instanceof String email && isEmailTakenByOtherUser(email, userId)) {
+            throw new ConflictException(EMAIL_TAKEN);
+        }
+        UpdatedUser updated = userRepository.updateFields(userId, fields, expectedVersions)
+                .orElseThrow(() -> expectedVersions != null && userRepository.existsById(userId)
+                        ? new PreconditionFailedException(userId)
+                        : userNotFound(userId));
+        User patchedUser = updated.getUser();
+        userCache.evict(patchedUser);
+        emailFilter.add(patchedUser.getEmail());
+        publish(UserChange.Type.UPDATED, patchedUser, updated.getPreviousBirthDate());
+        return patchedUser;
+    }
+
+    private void publish(UserChange.Type type, User user) {
+        publish(type, user, null);
+    }
+
+    private void publish(UserChange.Type type, User user, LocalDate previousBirthDate) {
+        eventPublisher.publishEvent(new UserChange(type, user.getId(), user, previousBirthDate));
+    }
+
+    private void afterDelete(List<DeletedUser> users) {
+        userCache.evictDeleted(users.stream().map(DeletedUser::getId).toList());
+        users.forEach(user -> eventPublisher.publishEvent(
+                new UserChange(UserChange.Type.DELETED, user.getId(), null, user.getBirthDate())));
+    }
+
+    private boolean isEmailTaken(String email) {
+        return emailFilter.mightContain(email) && userRepository.existsByEmail(email);
+    }
+
+    private boolean isEmailTakenByOtherUser(String email, Integer userId) {
+        return emailFilter.mightContain(email) && userRepository.existsByEmailAndIdNot(email, userId);
+    }
+
+    private void putIfPresent(Map<String, Object> fields, String field, Object value) {
+        if (value != null) {
+            fields.put(field, value);
+        }
+    }
+
+    private Object toFieldValue(String field, Object value) {
+        Class<?> type = PATCHABLE_FIELDS.get(field);
+        if (type == null) {
+            throw new ClearSolutionException(String.format("Field can not be patched: %s", field));
+        }
+        if (value == null) {
+            return null;
+        }
+        if (!(value instanceof String text)) {
+            throw new ClearSolutionException(String.format("Field must be a string: %s", field));
+        }
+        if (type == LocalDate.class) {
+            try {
+                return LocalDate.parse(text);
+            } catch (DateTimeParseException e) {
+                throw new ClearSolutionException("Date of birth must match yyyy-MM-dd");
+            }
+        }
+        return text;
+    }
+
+    private void validateField(String field, Object value) {
+        Set<ConstraintViolation<User>> violations = validator.validateValue(User.class, field, value);
+        if (!violations.isEmpty()) {
+            throw new ClearSolutionException(violations.iterator().next().getMessage());
+        }
+        if (value instanceof LocalDate birthDate) {
+            isUserAboveAgeLimit(birthDate);
+        }
+    }
+
+    private UserNotFoundException userNotFound(Integer userId) {
+        return new UserNotFoundException(userId);
+    }
+
+    private void validatePageLimit(int limit) {
+        if (limit < 1 || limit > maxPageLimit) {
+            throw new ClearSolutionException(
+                    String.format("Limit must be between 1 and %s", maxPageLimit));
+        }
+    }
+
+    private UserPage toPage(List<User> users, int limit) {
+        if (users.size() <= limit) {
+            return new UserPage(users, null);
+        }
+        List<User> page = users.subList(0, limit);
+        return new UserPage(page, page.get(limit - 1).getId());
+    }
+
+    private LocalDate latestAllowedBirthDate() {
+        AgeCutoff cutoff = ageCutoff;
+        long now = System.currentTimeMillis();
+        if (cutoff == null || now >= cutoff.validUntilMillis()) {
+            ZoneId zone = ZoneId.systemDefault();
+            LocalDate today = LocalDate.now(zone);
+            cutoff = new AgeCutoff(today.minusYears(userAgeLimit),
+                    today.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli());
+            ageCutoff = cutoff;
+        }
+        return cutoff.latestBirthDate();
+    }
+
     private boolean isUserAboveAgeLimit(LocalDate birthDate) {
-        Period period = Period.between(birthDate, LocalDate.now());
-        if (period.getYears() >= userAgeLimit) {
+        if (birthDate == null) {
+            throw new ClearSolutionException("Date of birth is required");
+        }
+        if (!birthDate.isAfter(latestAllowedBirthDate())) {
             return true;
         }
         throw new ClearSolutionException("Date of birth must be in the past");
     }
-}
 
+    private record AgeCutoff(LocalDate latestBirthDate, long validUntilMillis) {
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.clearsolution.service;
+
+import com.example.clearsolution.dto.BirthDateCount;
+import com.example.clearsolution.dto.UserAgeDistribution;
+import com.example.clearsolution.dto.UserChange;
+import com.example.clearsolution.exception.ClearSolutionException;
+import com.example.clearsolution.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserStatistics {
+
+    private static final LocalDate MIN_BIRTH_DATE = LocalDate.of(1900, 1, 1);
+    private static final LocalDate MAX_BIRTH_DATE = LocalDate.of(2100, 1, 1);
+    private static final int DAYS = (int) ChronoUnit.DAYS.between(MIN_BIRTH_DATE, MAX_BIRTH_DATE);
+    private static final int MAX_BUCKET_SIZE = 100;
+
+    private final UserRepository userRepository;
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private volatile BirthDateCounts counts = new BirthDateCounts();
+    private volatile Queue<UserChange> changesDuringRebuild;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${user.statistics.reconcile-interval}",
+            fixedDelayString = "${user.statistics.reconcile-interval}")
+    @Transactional(readOnly = true)
+    public void reconcile() {
+        long started = System.nanoTime();
+        Queue<UserChange> changes = new ConcurrentLinkedQueue<>();
+        changesDuringRebuild = changes;
+        BirthDateCounts rebuilt = new BirthDateCounts();
+        try {
+            for (BirthDateCount count : userRepository.countUsersPerBirthDate()) {
+                rebuilt.add(count.getBirthDate(), count.getUsers());
+            }
+        } catch (RuntimeException e) {
+            changesDuringRebuild = null;
+            throw e;
+        }
+        long drift;
+        swapLock.writeLock().lock();
+        try {
+            changesDuringRebuild = null;
+            changes.forEach(change -> apply(rebuilt, change));
+            drift = rebuilt.total() - counts.total();
+            counts = rebuilt;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+        log.info("User statistics rebuilt with {} users in {} ms (drift {})",
+                rebuilt.total(), (System.nanoTime() - started) / 1_000_000, drift);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChange(UserChange change) {
+        swapLock.readLock().lock();
+        try {
+            apply(counts, change);
+            Queue<UserChange> changes = changesDuringRebuild;
+            if (changes != null) {
+                changes.add(change);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    public UserAgeDistribution getAgeDistribution(int bucketSize) {
+        if (bucketSize < 1 || bucketSize > MAX_BUCKET_SIZE) {
+            throw new ClearSolutionException(
+                    String.format("Bucket size must be between 1 and %s", MAX_BUCKET_SIZE));
+        }
+        BirthDateCounts snapshot = counts;
+        LocalDate today = LocalDate.now();
+
+        List<UserAgeDistribution.AgeBucket> ageBuckets = new ArrayList<>();
+        int lastNonEmpty = -1;
+        for (int fromAge = 0; !today.minusYears(fromAge).isBefore(MIN_BIRTH_DATE); fromAge += bucketSize) {
+            int toAge = fromAge + bucketSize - 1;
+            long users = snapshot.count(today.minusYears(toAge + 1L).plusDays(1), today.minusYears(fromAge));
+            ageBuckets.add(new UserAgeDistribution.AgeBucket(fromAge, toAge, users));
+            if (users > 0) {
+                lastNonEmpty = ageBuckets.size() - 1;
+            }
+        }
+
+        Map<Integer, Long> birthYears = new LinkedHashMap<>();
+        for (int year = MIN_BIRTH_DATE.getYear(); year <= today.getYear(); year++) {
+            long users = snapshot.count(LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31));
+            if (users > 0) {
+                birthYears.put(year, users);
+            }
+        }
+        return new UserAgeDistribution(snapshot.total(),
+                List.copyOf(ageBuckets.subList(0, lastNonEmpty + 1)), birthYears);
+    }
+
+    private static void apply(BirthDateCounts counts, UserChange change) {
+        switch (change.getType()) {
+            case CREATED -> counts.add(change.getUser().getBirthDate(), 1);
+            case UPDATED -> {
+                LocalDate birthDate = change.getUser().getBirthDate();
+                if (!Objects.equals(birthDate, change.getPreviousBirthDate())) {
+                    counts.add(change.getPreviousBirthDate(), -1);
+                    counts.add(birthDate, 1);
+                }
+            }
+            case DELETED -> counts.add(change.getPreviousBirthDate(), -1);
+        }
+    }
+
+    private static final class BirthDateCounts {
+        private final AtomicLongArray tree = new AtomicLongArray(DAYS + 1);
+        private final LongAdder total = new LongAdder();
+
+        void add(LocalDate birthDate, long delta) {
+            if (birthDate == null || birthDate.isBefore(MIN_BIRTH_DATE) || !birthDate.isBefore(MAX_BIRTH_DATE)) {
+                return;
+            }
+            for (int i = index(birthDate); i <= DAYS; i += i & -i) {
+                tree.addAndGet(i, delta);
+            }
+            total.add(delta);
+        }
+
+        long count(LocalDate from, LocalDate to) {
+            return countUpTo(to) - countUpTo(from.minusDays(1));
+        }
+
+        long total() {
+            return total.sum();
+        }
+
+        private long countUpTo(LocalDate date) {
+            if (date.isBefore(MIN_BIRTH_DATE)) {
+                return 0;
+            }
+            long sum = 0;
+            for (int i = index(date); i > 0; i -= i & -i) {
+                sum += tree.get(i);
+            }
+            return sum;
+        }
+
+        private static int index(LocalDate date) {
+            long day = ChronoUnit.DAYS.between(MIN_BIRTH_DATE, date) + 1;
+            return (int) Math.max(1, Math.min(DAYS, day));
+        }
+    }
+}
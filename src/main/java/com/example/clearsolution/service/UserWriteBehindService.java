@@ -0,0 +1,225 @@
+package com.example.clearsolution.service;
+
+import com.example.clearsolution.dto.User;
+import com.example.clearsolution.dto.UserWriteStatus;
+import com.example.clearsolution.exception.ClearSolutionException;
+import com.example.clearsolution.exception.TooManyRequestsException;
+import com.example.clearsolution.exception.TrackingIdNotFoundException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "user.write-behind.enabled", havingValue = "true")
+public class UserWriteBehindService {
+
+    private final UserService userService;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<String, UserWriteStatus> statuses;
+    private final Map<Object, PendingWrite> pending = new LinkedHashMap<>();
+    private final int capacity;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final Thread flusher = new Thread(this::run, "user-write-behind");
+    private volatile boolean running = true;
+
+    public UserWriteBehindService(UserService userService,
+                                  TransactionTemplate transactionTemplate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${user.write-behind.capacity}") int capacity,
+                                  @Value("${user.write-behind.batch-size}") int batchSize,
+                                  @Value("${user.write-behind.flush-interval}") Duration flushInterval,
+                                  @Value("${user.write-behind.status-ttl}") Duration statusTtl) {
+        this.userService = userService;
+        this.transactionTemplate = transactionTemplate;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushInterval.toMillis();
+        this.statuses = Caffeine.newBuilder()
+                .expireAfterWrite(statusTtl)
+                .build();
+        meterRegistry.gauge("user.write.behind.queue.size", this, UserWriteBehindService::queueSize);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        synchronized (this) {
+            notifyAll();
+        }
+        if (flusher.isAlive()) {
+            flusher.join();
+        }
+        flushPending();
+    }
+
+    public UserWriteStatus enqueueCreate(User user) {
+        String trackingId = UUID.randomUUID().toString();
+        synchronized (this) {
+            reserve();
+            UserWriteStatus status = queued(trackingId, null);
+            pending.put(trackingId, new PendingWrite(null, user, trackingId));
+            signalIfFull();
+            return status;
+        }
+    }
+
+    public UserWriteStatus enqueueUpdate(Integer userId, User user) {
+        String trackingId = UUID.randomUUID().toString();
+        synchronized (this) {
+            PendingWrite write = pending.get(userId);
+            if (write != null) {
+                write.user = user;
+                write.trackingIds.add(trackingId);
+                return queued(trackingId, userId);
+            }
+            reserve();
+            UserWriteStatus status = queued(trackingId, userId);
+            pending.put(userId, new PendingWrite(userId, user, trackingId));
+            signalIfFull();
+            return status;
+        }
+    }
+
+    public UserWriteStatus getStatus(String trackingId) {
+        UserWriteStatus status = statuses.getIfPresent(trackingId);
+        if (status == null) {
+            throw new TrackingIdNotFoundException(trackingId);
+        }
+        return status;
+    }
+
+    void flushPending() {
+        List<PendingWrite> batch;
+        while (!(batch = drain()).isEmpty()) {
+            flush(batch);
+        }
+    }
+
+    private void run() {
+        while (running) {
+            List<PendingWrite> batch;
+            synchronized (this) {
+                if (pending.size() < batchSize && running) {
+                    try {
+                        wait(flushIntervalMillis);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                batch = drain();
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+            }
+        }
+    }
+
+    private synchronized int queueSize() {
+        return pending.size();
+    }
+
+    private synchronized List<PendingWrite> drain() {
+        List<PendingWrite> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+        Iterator<PendingWrite> iterator = pending.values().iterator();
+        while (iterator.hasNext() && batch.size() < batchSize) {
+            batch.add(iterator.next());
+            iterator.remove();
+        }
+        return batch;
+    }
+
+    private void flush(List<PendingWrite> batch) {
+        if (batch.size() == 1) {
+            flushOne(batch.get(0));
+            return;
+        }
+        try {
+            List<User> saved = transactionTemplate.execute(status -> batch.stream().map(this::apply).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                complete(batch.get(i), saved.get(i));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Group commit of {} writes failed, retrying them one by one", batch.size(), e);
+            batch.forEach(this::flushOne);
+        }
+    }
+
+    private void flushOne(PendingWrite write) {
+        try {
+            complete(write, transactionTemplate.execute(status -> apply(write)));
+        } catch (RuntimeException e) {
+            String message = e instanceof ClearSolutionException ? e.getMessage() : "Write could not be committed";
+            write.trackingIds.forEach(trackingId -> statuses.put(trackingId,
+                    new UserWriteStatus(trackingId, UserWriteStatus.State.FAILED, write.userId, message)));
+        }
+    }
+
+    private User apply(PendingWrite write) {
+        if (write.userId == null) {
+            write.user.setId(0);
+            write.user.setVersion(0);
+            return userService.createUser(write.user);
+        }
+        return userService.updateUser(write.userId, write.user, null);
+    }
+
+    private void complete(PendingWrite write, User saved) {
+        write.trackingIds.forEach(trackingId -> statuses.put(trackingId,
+                new UserWriteStatus(trackingId, UserWriteStatus.State.COMMITTED, saved.getId(), null)));
+    }
+
+    private void reserve() {
+        if (pending.size() >= capacity) {
+            throw new TooManyRequestsException("Write queue is full, retry later");
+        }
+    }
+
+    private void signalIfFull() {
+        if (pending.size() >= batchSize) {
+            notifyAll();
+        }
+    }
+
+    private UserWriteStatus queued(String trackingId, Integer userId) {
+        UserWriteStatus status = new UserWriteStatus(trackingId, UserWriteStatus.State.QUEUED, userId, null);
+        statuses.put(trackingId, status);
+        return status;
+    }
+
+    private static final class PendingWrite {
+        private final Integer userId;
+        private final List<String> trackingIds = new ArrayList<>(1);
+        private User user;
+
+        private PendingWrite(Integer userId, User user, String trackingId) {
+            this.userId = userId;
+            this.user = user;
+            this.trackingIds.add(trackingId);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+create sequence if not exists users_seq start with 1 increment by 50;
+
+create table if not exists users (
+    id              integer      not null,
+    email           varchar(255) not null,
+    first_name      varchar(255) not null,
+    last_name       varchar(255) not null,
+    birth_date      date         not null,
+    address         varchar(255),
+    phone_number    varchar(255),
+    version         bigint       not null,
+    birth_month_day smallint,
+    primary key (id, birth_date)
+) partition by range (birth_date);
+
+do $$
+begin
+    for decade in 1900..2020 by 10 loop
+        execute format('create table if not exists users_%ss partition of users for values from (%L) to (%L)',
+                       decade, make_date(decade, 1, 1), make_date(decade + 10, 1, 1));
+    end loop;
+end
+$$;
+
+create table if not exists users_default partition of users default;
+
+create index if not exists idx_users_birth_date on users (birth_date, id);
+create index if not exists idx_users_by_email on users (email);
+create index if not exists idx_users_birth_month_day on users (birth_month_day);
+
+create table if not exists user_emails (
+    email   varchar(255) not null,
+    user_id integer      not null,
+    constraint idx_users_email primary key (email)
+);
+
+create or replace function users_claim_email() returns trigger language plpgsql as $$
+begin
+    if tg_op <> 'INSERT' then
+        delete from user_emails where email = old.email and user_id = old.id;
+    end if;
+    if tg_op <> 'DELETE' then
+        insert into user_emails (email, user_id) values (new.email, new.id);
+    end if;
+    return null;
+end
+$$;
+
+drop trigger if exists users_claim_email on users;
+create trigger users_claim_email
+    after insert or delete on users
+    for each row execute function users_claim_email();
+
+drop trigger if exists users_reclaim_email on users;
+create trigger users_reclaim_email
+    after update of email on users
+    for each row when (old.email is distinct from new.email) execute function users_claim_email();
@@ -0,0 +1,50 @@
+package com.example.clearsolution.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.cache.Cache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheConfigTest {
+
+    private Cache cache;
+
+    @BeforeEach
+    void setUp() {
+        CacheProperties cacheProperties = new CacheProperties();
+        cacheProperties.setCacheNames(List.of(CacheConfig.USERS_CACHE));
+        cacheProperties.getCaffeine().setSpec("maximumSize=10");
+        cache = new CacheConfig().cacheManager(cacheProperties).getCache(CacheConfig.USERS_CACHE);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void shouldPutOnlyAfterCommit() {
+        cache.put(1, "committed");
+        assertNull(cache.get(1));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals("committed", cache.get(1).get());
+    }
+
+    @Test
+    void shouldDropPutsOfRolledBackTransactions() {
+        cache.put(1, "rolled back");
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        assertNull(cache.get(1));
+    }
+}
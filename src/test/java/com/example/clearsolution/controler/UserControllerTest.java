@@ -1,21 +1,47 @@
 package com.example.clearsolution.controler;
 
 import com.example.clearsolution.dto.User;
+import com.example.clearsolution.dto.UserBatchError;
+import com.example.clearsolution.dto.UserBatchResult;
+import com.example.clearsolution.dto.UserImportProgress;
+import com.example.clearsolution.dto.UserPage;
+import com.example.clearsolution.dto.UserSummary;
 import com.example.clearsolution.exception.ClearSolutionException;
+import com.example.clearsolution.exception.PreconditionFailedException;
+import com.example.clearsolution.exception.UserNotFoundException;
+import com.example.clearsolution.service.UserChangeFeed;
+import com.example.clearsolution.service.UserImportService;
 import com.example.clearsolution.service.UserService;
+import com.example.clearsolution.service.UserStatistics;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDate;
+import java.time.MonthDay;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.when;
 import static org.mockito.ArgumentMatchers.any;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -23,13 +49,22 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.mockito.Mockito.*;
 
 @WebMvcTest
+@Import(SimpleMeterRegistry.class)
 class UserControllerTest {
     @MockBean
     private UserService userService;
+    @MockBean
+    private UserImportService userImportService;
+    @MockBean
+    private UserChangeFeed userChangeFeed;
+    @MockBean
+    private UserStatistics userStatistics;
     @Autowired
     private MockMvc mockMvc;
     @Autowired
     private ObjectMapper objectMapper;
+    @Autowired
+    private MeterRegistry meterRegistry;
 
     @Test
     @SneakyThrows
@@ -62,7 +97,8 @@ class UserControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(invalidUser)))
                 .andExpect(status().isBadRequest())
-                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.status").value(400))
                 .andExpect(jsonPath("$.message[0]").value("Email is required"));
     }
 
@@ -75,7 +111,7 @@ class UserControllerTest {
         updatedUser.setLastName("Doe");
 
         when(userService.updateUser(any(Integer.class),
-                any(User.class))).thenReturn(updatedUser);
+                any(User.class), isNull())).thenReturn(updatedUser);
 
         mockMvc.perform(put("/api/users/{userId}", 1)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -86,7 +122,7 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.firstName").value(updatedUser.getFirstName()))
                 .andExpect(jsonPath("$.lastName").value(updatedUser.getLastName()));
 
-        verify(userService).updateUser(eq(1), any(User.class));
+        verify(userService).updateUser(eq(1), any(User.class), isNull());
     }
 
     @Test
@@ -97,7 +133,7 @@ class UserControllerTest {
         updatedUser.setLastName("Doe");
 
         when(userService.updateUserField(any(Integer.class),
-                any(User.class))).thenReturn(updatedUser);
+                any(User.class), isNull())).thenReturn(updatedUser);
 
         mockMvc.perform(patch("/api/users/{userId}", 1)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -108,7 +144,7 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.firstName").value(updatedUser.getFirstName()))
                 .andExpect(jsonPath("$.lastName").value(updatedUser.getLastName()));
 
-        verify(userService).updateUserField(eq(1), any(User.class));
+        verify(userService).updateUserField(eq(1), any(User.class), isNull());
     }
 
     @Test
@@ -119,29 +155,81 @@ class UserControllerTest {
                 .birthDate(LocalDate.now().minusYears(17))
                 .build();
 
-        when(userService.updateUserField(any(Integer.class), any(User.class)))
+        when(userService.updateUserField(any(Integer.class), any(User.class), isNull()))
                 .thenThrow(new ClearSolutionException(exception));
 
         mockMvc.perform(patch("/api/users/{userId}", 1)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(updatedUser)))
                 .andExpect(status().isBadRequest())
-                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
                 .andExpect(jsonPath("$.message").value(exception));
 
-        verify(userService, times(1)).updateUserField(eq(1), any(User.class));
+        verify(userService, times(1)).updateUserField(eq(1), any(User.class), isNull());
     }
 
     @Test
     @SneakyThrows
     void deleteUser() {
-        doNothing().when(userService).deleteUser(1);
+        when(userService.deleteUser(1)).thenReturn(true);
         mockMvc.perform(delete("/api/users/{userId}", 1))
                 .andExpect(status().isOk());
 
         verify(userService, times(1)).deleteUser(eq(1));
     }
 
+    @Test
+    @SneakyThrows
+    void shouldNotDeleteMissingUser() {
+        when(userService.deleteUser(1)).thenReturn(false);
+        mockMvc.perform(delete("/api/users/{userId}", 1))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.detail").value("Can not find user by id: 1"));
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldNotGetMissingUser() {
+        when(userService.getUser(1)).thenThrow(new UserNotFoundException(1));
+        mockMvc.perform(get("/api/users/{userId}", 1))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.status").value(404))
+                .andExpect(jsonPath("$.message").value("Can not find user by id: 1"));
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldRejectMissingRequestParameter() {
+        mockMvc.perform(get("/api/users/range")
+                        .param("fromDate", "2022-01-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON));
+    }
+
+    @Test
+    @SneakyThrows
+    void deleteUsers() {
+        when(userService.deleteUsers(List.of(1, 2, 3))).thenReturn(2);
+        mockMvc.perform(delete("/api/users")
+                        .param("ids", "1,2,3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(2));
+    }
+
+    @Test
+    @SneakyThrows
+    void deleteUsersByBirthDateRange() {
+        when(userService.deleteUsersByBirthDateRange(LocalDate.parse("1990-01-01"),
+                LocalDate.parse("1995-05-05"))).thenReturn(7);
+        mockMvc.perform(delete("/api/users")
+                        .param("fromDate", "1990-01-01")
+                        .param("toDate", "1995-05-05"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(7));
+    }
+
     @Test
     @SneakyThrows
     void searchUsersByBirthDateRange() {
@@ -177,14 +265,19 @@ class UserControllerTest {
     @Test
     @SneakyThrows
     void shouldNorSearchUsersByBirthDateRangeInvalidDates() {
+        double errorsBefore = meterRegistry.counter("api.errors",
+                "exception", "ClearSolutionException").count();
 
         mockMvc.perform(get("/api/users/range")
                         .param("fromDate", "2022-01-01")
                         .param("toDate", "2021-05-05"))
                 .andExpect(status().isBadRequest())
-                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
                 .andExpect(jsonPath("$.message").value("Invalid dates. The 'from' date must be less than the 'to' date."));
 
+        assertEquals(errorsBefore + 1, meterRegistry.counter("api.errors",
+                "exception", "ClearSolutionException").count());
+
         verify(userService, never()).getUsersByBirthDateRange(any(LocalDate.class),
                 any(LocalDate.class));
     }
@@ -215,4 +308,426 @@ class UserControllerTest {
 
         verify(userService).getListOfUsers();
     }
+
+    @Test
+    @SneakyThrows
+    void getUserFields() {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", 1);
+        row.put("email", "first@gmail.com");
+
+        when(userService.getListOfUsers(List.of("id", "email"))).thenReturn(List.of(row));
+
+        mockMvc.perform(get("/api/users").param("fields", "id,email"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].email").value("first@gmail.com"))
+                .andExpect(jsonPath("$[0].firstName").doesNotExist());
+
+        verify(userService, never()).getListOfUsers();
+    }
+
+    @Test
+    @SneakyThrows
+    void getUsersByBirthday() {
+        User user = User.builder()
+                .id(1)
+                .birthDate(LocalDate.parse("1992-02-29"))
+                .build();
+
+        when(userService.getUsersByBirthday(MonthDay.of(2, 29), MonthDay.of(2, 29))).thenReturn(List.of(user));
+
+        mockMvc.perform(get("/api/users/birthdays").param("on", "02-29"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].birthDate").value("1992-02-29"))
+                .andExpect(jsonPath("$[0].birthMonthDay").doesNotExist());
+
+        mockMvc.perform(get("/api/users/birthdays").param("on", "2-30"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @SneakyThrows
+    void getUsersPage() {
+        User first = User.builder()
+                .id(3)
+                .firstName("User 3")
+                .build();
+        User second = User.builder()
+                .id(4)
+                .firstName("User 4")
+                .build();
+        UserPage page = new UserPage(List.of(first, second), 4);
+
+        when(userService.getUsersPage(2, 2)).thenReturn(page);
+
+        mockMvc.perform(get("/api/users")
+                        .param("after", "2")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.users.length()").value(2))
+                .andExpect(jsonPath("$.users[0].firstName").value("User 3"))
+                .andExpect(jsonPath("$.nextCursor").value(4));
+
+        verify(userService).getUsersPage(2, 2);
+        verify(userService, never()).getListOfUsers();
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldRejectFieldsOnPages() {
+        mockMvc.perform(get("/api/users")
+                        .param("fields", "id,email")
+                        .param("limit", "50"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message")
+                        .value("Fields can not be combined with limit, pages always return full users"));
+        mockMvc.perform(get("/api/users/range")
+                        .param("fromDate", "1990-01-01")
+                        .param("toDate", "1995-05-05")
+                        .param("fields", "id")
+                        .param("limit", "10"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    @SneakyThrows
+    void searchUsersByBirthDateRangePage() {
+        User first = User.builder()
+                .id(1)
+                .firstName("User 1")
+                .birthDate(LocalDate.parse("1991-05-10"))
+                .build();
+        UserPage page = new UserPage(List.of(first), null);
+
+        when(userService.getUsersByBirthDateRangePage(LocalDate.parse("1990-01-01"),
+                LocalDate.parse("1995-05-05"), null, 10)).thenReturn(page);
+
+        mockMvc.perform(get("/api/users/range")
+                        .param("fromDate", "1990-01-01")
+                        .param("toDate", "1995-05-05")
+                        .param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").isEmpty());
+
+        verify(userService, never()).getUsersByBirthDateRange(any(LocalDate.class),
+                any(LocalDate.class));
+    }
+
+    @Test
+    @SneakyThrows
+    @SuppressWarnings("unchecked")
+    void exportUsers() {
+        User first = User.builder()
+                .id(1)
+                .firstName("User 1")
+                .build();
+        User second = User.builder()
+                .id(2)
+                .firstName("User 2")
+                .build();
+
+        doAnswer(invocation -> {
+            Consumer<User> consumer = invocation.getArgument(0);
+            consumer.accept(first);
+            consumer.accept(second);
+            return null;
+        }).when(userService).exportUsers(any(Consumer.class));
+
+        MvcResult result = mockMvc.perform(get("/api/users/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        objectMapper.writeValueAsString(first) + "\n"
+                                + objectMapper.writeValueAsString(second) + "\n"));
+    }
+
+    @Test
+    @SneakyThrows
+    void createUsers() {
+        User valid = User.builder()
+                .email("test123@gmail.com")
+                .firstName("John")
+                .lastName("Doe")
+                .build();
+        UserBatchResult batchResult = new UserBatchResult(List.of(51),
+                List.of(new UserBatchError(1, List.of("Email is required"))));
+
+        when(userService.createUsers(anyList())).thenReturn(batchResult);
+
+        mockMvc.perform(post("/api/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(valid, new User()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.createdIds[0]").value(51))
+                .andExpect(jsonPath("$.errors[0].index").value(1))
+                .andExpect(jsonPath("$.errors[0].messages[0]").value("Email is required"));
+
+        verify(userService).createUsers(anyList());
+    }
+
+    @Test
+    @SneakyThrows
+    @SuppressWarnings("unchecked")
+    void mergePatchUser() {
+        User patchedUser = User.builder()
+                .id(1)
+                .email("test123@gmail.com")
+                .firstName("John")
+                .build();
+
+        when(userService.mergePatchUser(eq(1), any(Map.class), isNull())).thenReturn(patchedUser);
+
+        mockMvc.perform(patch("/api/users/{userId}", 1)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"firstName\":\"John\",\"address\":null}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName").value("John"));
+
+        Map<String, Object> expectedPatch = new HashMap<>();
+        expectedPatch.put("firstName", "John");
+        expectedPatch.put("address", null);
+        verify(userService).mergePatchUser(1, expectedPatch, null);
+        verify(userService, never()).updateUserField(any(Integer.class), any(User.class), any());
+    }
+
+    @Test
+    @SneakyThrows
+    void getUser() {
+        User user = User.builder()
+                .id(1)
+                .email("test123@gmail.com")
+                .firstName("John")
+                .build();
+
+        when(userService.getUser(1)).thenReturn(user);
+
+        mockMvc.perform(get("/api/users/{userId}", 1))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("ETag", "\"0\""))
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.email").value(user.getEmail()));
+
+        verify(userService).getUser(1);
+    }
+
+    @Test
+    @SneakyThrows
+    @SuppressWarnings("unchecked")
+    void importUsers() {
+        String csv = "email,firstName,lastName,birthDate\n";
+        when(userImportService.importUsers(any(), any(MediaType.class), any(Consumer.class)))
+                .thenAnswer(invocation -> {
+                    invocation.getArgument(2, Consumer.class).accept(UserImportProgress.builder()
+                            .rows(1000).created(999).failed(1)
+                            .errors(List.of(new UserBatchError(5, List.of("Email is required"))))
+                            .build());
+                    return UserImportProgress.builder().rows(1500).created(1499).failed(1).done(true).build();
+                });
+
+        MvcResult result = mockMvc.perform(post("/api/users/import")
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn();
+
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(5, objectMapper.readTree(lines[0]).at("/errors/0/index").asInt());
+        assertEquals(1500, objectMapper.readTree(lines[1]).get("rows").asInt());
+        assertEquals(true, objectMapper.readTree(lines[1]).get("done").asBoolean());
+    }
+
+    @Test
+    @SneakyThrows
+    void getUserByEmail() {
+        User user = User.builder()
+                .id(1)
+                .email("test123@gmail.com")
+                .build();
+
+        when(userService.getUserByEmail("test123@gmail.com")).thenReturn(user);
+
+        mockMvc.perform(get("/api/users/by-email")
+                        .param("email", "test123@gmail.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1));
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldNotCreateUserWithDuplicateEmail() {
+        User newUser = User.builder()
+                .email("test123@gmail.com")
+                .firstName("John")
+                .lastName("Doe")
+                .birthDate(LocalDate.parse("1990-01-01"))
+                .build();
+
+        when(userService.createUser(any(User.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key value violates unique constraint \"idx_users_email\""));
+
+        mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(newUser)))
+                .andExpect(status().isConflict())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.message").value("Email is already taken"));
+    }
+
+    @Test
+    @SneakyThrows
+    void getUserAsSmile() {
+        User user = User.builder()
+                .id(1)
+                .email("test123@gmail.com")
+                .birthDate(LocalDate.parse("1990-01-01"))
+                .build();
+
+        when(userService.getUser(1)).thenReturn(user);
+
+        MvcResult result = mockMvc.perform(get("/api/users/{userId}", 1)
+                        .accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn();
+
+        User decoded = new ObjectMapper(new SmileFactory()).findAndRegisterModules()
+                .readValue(result.getResponse().getContentAsByteArray(), User.class);
+        assertEquals(user.getEmail(), decoded.getEmail());
+        assertEquals(user.getBirthDate(), decoded.getBirthDate());
+    }
+
+    @Test
+    @SneakyThrows
+    void createUserFromCbor() {
+        User newUser = User.builder()
+                .email("test123@gmail.com")
+                .firstName("John")
+                .lastName("Doe")
+                .birthDate(LocalDate.parse("1990-01-01"))
+                .build();
+
+        when(userService.createUser(any(User.class))).thenReturn(newUser);
+
+        byte[] body = new ObjectMapper(new CBORFactory()).findAndRegisterModules()
+                .writeValueAsBytes(newUser);
+        mockMvc.perform(post("/api/users")
+                        .contentType("application/cbor")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value(newUser.getEmail()));
+
+        verify(userService).createUser(newUser);
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldNotResendUnmodifiedUser() {
+        User user = User.builder()
+                .id(1)
+                .email("test123@gmail.com")
+                .version(4)
+                .build();
+
+        when(userService.getUser(1)).thenReturn(user);
+
+        mockMvc.perform(get("/api/users/{userId}", 1)
+                        .header("If-None-Match", "\"4\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldNotUpdateStaleUser() {
+        User updatedUser = User.builder()
+                .email("new.email@gmail.com")
+                .firstName("John")
+                .lastName("Doe")
+                .birthDate(LocalDate.parse("1990-01-01"))
+                .build();
+
+        when(userService.updateUser(eq(1), any(User.class), eq(Set.of(2L))))
+                .thenThrow(new PreconditionFailedException(1));
+
+        mockMvc.perform(put("/api/users/{userId}", 1)
+                        .header("If-Match", "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updatedUser)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.status").value(412));
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldMatchIfMatchListStrongly() {
+        User updatedUser = User.builder()
+                .email("new.email@gmail.com")
+                .firstName("John")
+                .lastName("Doe")
+                .birthDate(LocalDate.parse("1990-01-01"))
+                .build();
+
+        when(userService.updateUser(eq(1), any(User.class), eq(Set.of(4L, 5L)))).thenReturn(updatedUser);
+
+        mockMvc.perform(put("/api/users/{userId}", 1)
+                        .header("If-Match", "W/\"3\", \"4\",\"5\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updatedUser)))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/api/users/{userId}", 1)
+                        .header("If-Match", "W/\"4\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updatedUser)))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(userService, times(1)).updateUser(any(Integer.class), any(User.class), any());
+    }
+
+    @Test
+    @SneakyThrows
+    void searchUserSummariesByBirthDateRange() {
+        UserSummary summary = new UserSummary(1, "User 1", "Last", LocalDate.parse("1994-05-10"));
+
+        when(userService.getUserSummariesByBirthDateRange(LocalDate.parse("1990-01-01"),
+                LocalDate.parse("1995-05-05"), Sort.Direction.DESC, 10)).thenReturn(List.of(summary));
+
+        mockMvc.perform(get("/api/users/range/summary")
+                        .param("fromDate", "1990-01-01")
+                        .param("toDate", "1995-05-05")
+                        .param("sort", "desc")
+                        .param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].firstName").value("User 1"))
+                .andExpect(jsonPath("$[0].email").doesNotExist());
+    }
+
+    @Test
+    @SneakyThrows
+    void countUsersByBirthDateRange() {
+        when(userService.countUsersByBirthDateRange(LocalDate.parse("1990-01-01"),
+                LocalDate.parse("1995-05-05"))).thenReturn(42L);
+
+        mockMvc.perform(get("/api/users/range/count")
+                        .param("fromDate", "1990-01-01")
+                        .param("toDate", "1995-05-05"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("42"));
+    }
 }
\ No newline at end of file
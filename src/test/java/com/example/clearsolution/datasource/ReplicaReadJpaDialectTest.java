@@ -0,0 +1,45 @@
+package com.example.clearsolution.datasource;
+
+import jakarta.persistence.CacheRetrieveMode;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import org.hibernate.jpa.SpecHints;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.mockito.Mockito.*;
+
+class ReplicaReadJpaDialectTest {
+
+    private final ReplicaReadJpaDialect jpaDialect = new ReplicaReadJpaDialect();
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReplicaRoutingContext.clear();
+    }
+
+    @Test
+    void shouldBypassCachesForReplicaReads() {
+        EntityManager entityManager = mock(EntityManager.class);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        jpaDialect.initializeEntityManager(entityManager);
+
+        verify(entityManager).setProperty(SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE, CacheRetrieveMode.BYPASS);
+        verify(entityManager).setProperty(SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+    }
+
+    @Test
+    void shouldKeepCachesForPrimaryReadsAndWrites() {
+        EntityManager entityManager = mock(EntityManager.class);
+
+        jpaDialect.initializeEntityManager(entityManager);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        ReplicaRoutingContext.requirePrimary();
+        jpaDialect.initializeEntityManager(entityManager);
+
+        verifyNoInteractions(entityManager);
+    }
+}
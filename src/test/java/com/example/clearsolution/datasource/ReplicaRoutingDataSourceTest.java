@@ -0,0 +1,74 @@
+package com.example.clearsolution.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReplicaRoutingContext.clear();
+    }
+
+    @Test
+    void shouldRouteReadOnlyTransactionsToReplicasWithinMaxLag() throws SQLException {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", replicaWithLag(0.5));
+        replicas.put("replica-1", replicaWithLag(30));
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(mock(DataSource.class), replicas,
+                Duration.ofSeconds(5), Duration.ofSeconds(1), new SimpleMeterRegistry());
+        dataSource.checkLag();
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, dataSource.determineCurrentLookupKey(),
+                "read-write transactions stay on the primary");
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals("replica-0", dataSource.determineCurrentLookupKey());
+        assertEquals("replica-0", dataSource.determineCurrentLookupKey(), "a lagging replica is skipped");
+
+        ReplicaRoutingContext.requirePrimary();
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, dataSource.determineCurrentLookupKey(),
+                "reads after a write stay on the primary");
+    }
+
+    @Test
+    void shouldFallBackToPrimaryWhenNoReplicaIsAvailable() throws SQLException {
+        DataSource replica = mock(DataSource.class);
+        when(replica.getConnection()).thenThrow(new SQLException("Connection refused"));
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(mock(DataSource.class),
+                Map.of("replica-0", replica), Duration.ofSeconds(5), Duration.ofSeconds(1), new SimpleMeterRegistry());
+        dataSource.checkLag();
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, dataSource.determineCurrentLookupKey());
+    }
+
+    private DataSource replicaWithLag(double lagSeconds) throws SQLException {
+        DataSource replica = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(replica.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getDouble(1)).thenReturn(lagSeconds);
+        return replica;
+    }
+}
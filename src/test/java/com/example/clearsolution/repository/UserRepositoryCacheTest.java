@@ -0,0 +1,142 @@
+package com.example.clearsolution.repository;
+
+import com.example.clearsolution.dto.UpdatedUser;
+import com.example.clearsolution.dto.User;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.SneakyThrows;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserRepositoryCacheTest {
+
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+
+    @DynamicPropertySource
+    @SneakyThrows
+    static void datasource(DynamicPropertyRegistry registry) {
+        if (postgres == null) {
+            postgres = EmbeddedPostgres.start();
+        }
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create");
+    }
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAllInBatch();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void shouldServeRepeatedReadsFromCache() {
+        User first = userRepository.save(user("first@gmail.com", "1990-05-01"));
+        userRepository.save(user("second@gmail.com", "1995-05-01"));
+        statistics.clear();
+
+        userRepository.findById(first.getId());
+        userRepository.findById(first.getId());
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        LocalDate from = LocalDate.parse("1980-01-01");
+        LocalDate to = LocalDate.parse("2000-01-01");
+        assertEquals(2, userRepository.findByBirthDateBetween(from, to).size());
+        assertEquals(2, userRepository.findByBirthDateBetween(from, to).size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void shouldNotCacheFullTableReads() {
+        userRepository.save(user("first@gmail.com", "1990-05-01"));
+        userRepository.save(user("second@gmail.com", "1995-05-01"));
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+
+        userRepository.findAll();
+        userRepository.findAll();
+        assertEquals(0, statistics.getQueryCachePutCount());
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        Long streamed = transactionTemplate.execute(status -> {
+            try (Stream<User> users = userRepository.streamAll()) {
+                return users.count();
+            }
+        });
+        assertEquals(2L, streamed);
+        assertEquals(0, statistics.getSecondLevelCachePutCount());
+    }
+
+    @Test
+    void shouldInvalidateOnNativeWrites() {
+        User first = userRepository.save(user("first@gmail.com", "1990-05-01"));
+        User second = userRepository.save(user("second@gmail.com", "1995-05-01"));
+        LocalDate from = LocalDate.parse("1980-01-01");
+        LocalDate to = LocalDate.parse("2000-01-01");
+        userRepository.findByBirthDateBetween(from, to);
+
+        assertTrue(userRepository
+                .updateFields(first.getId(), Map.of("birthDate", LocalDate.parse("2005-05-01")), Set.of(1L, 2L))
+                .isEmpty());
+        UpdatedUser updated = userRepository
+                .updateFields(first.getId(), Map.of("birthDate", LocalDate.parse("2005-05-01")), Set.of(0L, 1L))
+                .orElseThrow();
+        assertEquals(LocalDate.parse("1990-05-01"), updated.getPreviousBirthDate());
+        assertEquals(LocalDate.parse("2005-05-01"), updated.getUser().getBirthDate());
+        assertEquals(LocalDate.parse("2005-05-01"),
+                userRepository.findById(first.getId()).orElseThrow().getBirthDate());
+        assertEquals(List.of(second.getId()), userRepository.findByBirthDateBetween(from, to).stream()
+                .map(User::getId)
+                .toList());
+
+        userRepository.deleteUsersByIdIn(List.of(second.getId()));
+        assertTrue(userRepository.findById(second.getId()).isEmpty());
+        assertTrue(userRepository.findByBirthDateBetween(from, to).isEmpty());
+    }
+
+    private User user(String email, String birthDate) {
+        return User.builder()
+                .email(email)
+                .firstName("First")
+                .lastName("Last")
+                .birthDate(LocalDate.parse(birthDate))
+                .build();
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.clearsolution.service;
+
+import com.example.clearsolution.dto.UserChange;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = {UserChangeFeed.class, SimpleMeterRegistry.class}, properties = {
+        "user.changes.buffer-size=3",
+        "user.changes.subscriber-queue-size=10",
+        "user.changes.sender.threads=1",
+        "user.changes.sender.queue-size=10",
+        "spring.mvc.async.request-timeout=1m"
+})
+class UserChangeFeedTest {
+    @Autowired
+    private UserChangeFeed userChangeFeed;
+
+    @Test
+    void shouldReplayOnlyBufferedChanges() {
+        for (int userId = 1; userId <= 5; userId++) {
+            userChangeFeed.onUserChange(new UserChange(UserChange.Type.UPDATED, userId, null, null));
+        }
+
+        List<UserChangeFeed.SequencedChange> missed = userChangeFeed.since(userChangeFeed.eventId(3));
+        assertEquals(List.of(4L, 5L), missed.stream().map(UserChangeFeed.SequencedChange::sequence).toList());
+        assertEquals(5, missed.get(1).change().getUserId());
+
+        assertEquals(List.of(), userChangeFeed.since(userChangeFeed.eventId(5)));
+        assertNull(userChangeFeed.since(userChangeFeed.eventId(1)), "changes older than the buffer can not be replayed");
+        assertNull(userChangeFeed.since(userChangeFeed.eventId(42)), "an id ahead of this instance can not be replayed");
+        assertNull(userChangeFeed.since("0a1b2c3d-4"), "an id from another instance or before a restart can not be replayed");
+        assertNull(userChangeFeed.since("4"), "an id without an epoch can not be replayed");
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.clearsolution.service;
+
+import com.example.clearsolution.dto.User;
+import com.example.clearsolution.dto.UserBatchError;
+import com.example.clearsolution.dto.UserBatchResult;
+import com.example.clearsolution.dto.UserImportProgress;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(classes = {UserImportService.class, JacksonAutoConfiguration.class},
+        properties = "user.import.chunk-size=2")
+class UserImportServiceTest {
+    @Autowired
+    private UserImportService userImportService;
+    @MockBean
+    private UserService userService;
+
+    @Test
+    @SneakyThrows
+    @SuppressWarnings("unchecked")
+    void shouldImportCsvInChunks() {
+        String csv = """
+                email,firstName,lastName,birthDate
+                a@gmail.com,A,A,1990-01-01
+                b@gmail.com,B,B,not-a-date
+                c@gmail.com,C,C,1990-01-01
+                d@gmail.com,D,D,1990-01-01
+                """;
+        when(userService.createUsers(anyList()))
+                .thenReturn(new UserBatchResult(List.of(1), List.of()))
+                .thenReturn(new UserBatchResult(List.of(2), List.of(
+                        new UserBatchError(1, List.of("Email is already taken")))));
+
+        List<UserImportProgress> progress = new ArrayList<>();
+        UserImportProgress result = userImportService.importUsers(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+                MediaType.parseMediaType("text/csv"), progress::add);
+
+        ArgumentCaptor<List<User>> chunks = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(userService, times(2)).createUsers(chunks.capture());
+        assertEquals(1, chunks.getAllValues().get(0).size());
+        assertEquals(LocalDate.parse("1990-01-01"), chunks.getAllValues().get(0).get(0).getBirthDate());
+        assertEquals("d@gmail.com", chunks.getAllValues().get(1).get(1).getEmail());
+
+        assertEquals(2, progress.size());
+        assertEquals(2, progress.get(0).getRows());
+        assertEquals(1, progress.get(0).getFailed());
+        assertEquals(1, progress.get(0).getErrors().get(0).getIndex());
+        assertTrue(progress.get(0).getErrors().get(0).getMessages().get(0).startsWith("Malformed record"));
+        assertEquals(4, progress.get(1).getRows());
+        assertEquals(3, progress.get(1).getErrors().get(0).getIndex());
+
+        assertTrue(result.isDone());
+        assertEquals(4, result.getRows());
+        assertEquals(2, result.getCreated());
+        assertEquals(2, result.getFailed());
+        assertTrue(result.getErrors().isEmpty());
+        assertNull(result.getMessage());
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldReportProgressWhenEveryRecordIsMalformed() {
+        String csv = """
+                email,firstName,lastName,birthDate
+                a@gmail.com,A,A,not-a-date
+                b@gmail.com,B,B,not-a-date
+                c@gmail.com,C,C,not-a-date
+                d@gmail.com,D,D,not-a-date
+                e@gmail.com,E,E,not-a-date
+                """;
+
+        List<UserImportProgress> progress = new ArrayList<>();
+        UserImportProgress result = userImportService.importUsers(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+                MediaType.parseMediaType("text/csv"), progress::add);
+
+        Mockito.verify(userService, Mockito.never()).createUsers(anyList());
+        assertEquals(2, progress.size());
+        assertEquals(List.of(2, 2), progress.stream().map(line -> line.getErrors().size()).toList());
+        assertEquals(4, progress.get(1).getFailed());
+        assertEquals(5, result.getRows());
+        assertEquals(5, result.getFailed());
+        assertEquals(4, result.getErrors().get(0).getIndex());
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldRetryRowsOneByOneWhenChunkHitsConstraint() {
+        String csv = """
+                email,firstName,lastName,birthDate
+                a@gmail.com,A,A,1990-01-01
+                b@gmail.com,B,B,1990-01-01
+                """;
+        when(userService.createUsers(anyList()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key value violates \"idx_users_email\""))
+                .thenReturn(new UserBatchResult(List.of(1), List.of()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key value violates \"idx_users_email\""));
+
+        List<UserImportProgress> progress = new ArrayList<>();
+        UserImportProgress result = userImportService.importUsers(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+                MediaType.parseMediaType("text/csv"), progress::add);
+
+        Mockito.verify(userService, times(3)).createUsers(anyList());
+        assertEquals(1, progress.size());
+        assertEquals(1, progress.get(0).getCreated());
+        assertEquals(1, progress.get(0).getErrors().get(0).getIndex());
+        assertEquals(List.of("Email is already taken"), progress.get(0).getErrors().get(0).getMessages());
+        assertTrue(result.isDone());
+        assertNull(result.getMessage());
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldFinishWithDoneRecordWhenChunkCanNotBeSaved() {
+        String csv = """
+                email,firstName,lastName,birthDate
+                a@gmail.com,A,A,1990-01-01
+                b@gmail.com,B,B,1990-01-01
+                c@gmail.com,C,C,1990-01-01
+                d@gmail.com,D,D,1990-01-01
+                e@gmail.com,E,E,1990-01-01
+                """;
+        when(userService.createUsers(anyList()))
+                .thenReturn(new UserBatchResult(List.of(1, 2), List.of()))
+                .thenThrow(new DataAccessResourceFailureException("connection lost"));
+
+        List<UserImportProgress> progress = new ArrayList<>();
+        UserImportProgress result = userImportService.importUsers(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+                MediaType.parseMediaType("text/csv"), progress::add);
+
+        Mockito.verify(userService, times(2)).createUsers(anyList());
+        assertEquals(1, progress.size());
+        assertTrue(result.isDone());
+        assertEquals("Import aborted, rows from row 2 on were not saved", result.getMessage());
+        assertEquals(2, result.getCreated());
+        assertEquals(2, result.getFailed());
+        assertEquals(List.of(2, 3), result.getErrors().stream().map(UserBatchError::getIndex).toList());
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldImportNdjson() {
+        String ndjson = """
+                {"email":"a@gmail.com","firstName":"A","lastName":"A","birthDate":"1990-01-01"}
+                {"email":"b@gmail.com","firstName":"B","lastName":"B","birthDate":"1990-01-01"}
+                """;
+        when(userService.createUsers(anyList())).thenReturn(new UserBatchResult(List.of(1, 2), List.of()));
+
+        UserImportProgress result = userImportService.importUsers(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)),
+                MediaType.APPLICATION_NDJSON, progress -> { });
+
+        assertEquals(2, result.getRows());
+        assertEquals(2, result.getCreated());
+        assertEquals(0, result.getFailed());
+    }
+}
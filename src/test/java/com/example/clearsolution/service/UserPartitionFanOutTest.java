@@ -0,0 +1,130 @@
+package com.example.clearsolution.service;
+
+import com.example.clearsolution.dto.User;
+import com.example.clearsolution.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManager;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ActiveProfiles("partitioned")
+@Import({UserPartitionFanOut.class, SimpleMeterRegistry.class})
+class UserPartitionFanOutTest {
+
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    private UserPartitionFanOut partitionFanOut;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    @DynamicPropertySource
+    @SneakyThrows
+    static void datasource(DynamicPropertyRegistry registry) {
+        if (postgres == null) {
+            postgres = EmbeddedPostgres.start();
+        }
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void shouldMergePartitionsInBirthDateOrder() {
+        User oldest = userRepository.save(user("oldest@gmail.com", "1899-03-01"));
+        User fifties = userRepository.save(user("fifties@gmail.com", "1955-07-01"));
+        User sixties = userRepository.save(user("sixties@gmail.com", "1965-01-01"));
+        User sixtiesTwin = userRepository.save(user("twin@gmail.com", "1965-01-01"));
+        User lastOfCentury = userRepository.save(user("century@gmail.com", "1999-12-31"));
+        User millennium = userRepository.save(user("millennium@gmail.com", "2000-01-01"));
+        userRepository.save(user("outside@gmail.com", "2012-01-01"));
+
+        List<User> users = partitionFanOut.findByBirthDateBetween(
+                LocalDate.parse("1890-01-01"), LocalDate.parse("2005-01-01"));
+
+        assertEquals(List.of(oldest.getId(), fifties.getId(), sixties.getId(), sixtiesTwin.getId(),
+                        lastOfCentury.getId(), millennium.getId()),
+                users.stream().map(User::getId).toList());
+        assertEquals("users_default", partitionOf(oldest));
+        assertEquals("users_1960s", partitionOf(sixties));
+        assertEquals("users_2000s", partitionOf(millennium));
+    }
+
+    @Test
+    void shouldKeepEmailsUniqueAcrossPartitions() {
+        User user = userRepository.save(user("taken@gmail.com", "1955-07-01"));
+
+        DataIntegrityViolationException duplicate = assertThrows(DataIntegrityViolationException.class,
+                () -> userRepository.save(user("taken@gmail.com", "1985-07-01")));
+        assertTrue(duplicate.getMostSpecificCause().getMessage().contains("idx_users_email"));
+
+        userRepository.updateFields(user.getId(), Map.of("birthDate", LocalDate.parse("1985-07-01")), null);
+        assertEquals("users_1980s", partitionOf(user));
+        assertThrows(DataIntegrityViolationException.class,
+                () -> userRepository.save(user("taken@gmail.com", "1995-07-01")));
+
+        userRepository.deleteUsersByIdIn(List.of(user.getId()));
+        assertDoesNotThrow(() -> userRepository.save(user("taken@gmail.com", "1995-07-01")));
+    }
+
+    @Test
+    void shouldSplitRangesOnPartitionBoundaries() {
+        assertEquals(List.of(
+                        range("1895-06-01", "1899-12-31"),
+                        range("1900-01-01", "1909-12-31"),
+                        range("1910-01-01", "1919-12-31"),
+                        range("1920-01-01", "1921-02-03")),
+                partitionFanOut.split(LocalDate.parse("1895-06-01"), LocalDate.parse("1921-02-03")));
+        assertEquals(List.of(range("2025-01-01", "2029-12-31"), range("2030-01-01", "2099-01-01")),
+                partitionFanOut.split(LocalDate.parse("2025-01-01"), LocalDate.parse("2099-01-01")));
+        assertTrue(partitionFanOut.split(LocalDate.parse("2000-01-02"), LocalDate.parse("2000-01-01")).isEmpty());
+    }
+
+    private String partitionOf(User user) {
+        return (String) entityManager
+                .createNativeQuery("select cast(cast(tableoid as regclass) as text) from users where id = :id")
+                .setParameter("id", user.getId())
+                .getSingleResult();
+    }
+
+    private static UserPartitionFanOut.BirthDateRange range(String from, String to) {
+        return new UserPartitionFanOut.BirthDateRange(LocalDate.parse(from), LocalDate.parse(to));
+    }
+
+    private static User user(String email, String birthDate) {
+        return User.builder()
+                .email(email)
+                .firstName("First")
+                .lastName("Last")
+                .birthDate(LocalDate.parse(birthDate))
+                .build();
+    }
+}
@@ -1,33 +1,76 @@
 package com.example.clearsolution.service;
 
+import com.example.clearsolution.config.CacheConfig;
+import com.example.clearsolution.datasource.ReplicaRoutingContext;
+import com.example.clearsolution.dto.DeletedUser;
+import com.example.clearsolution.dto.UpdatedUser;
 import com.example.clearsolution.dto.User;
+import com.example.clearsolution.dto.UserBatchResult;
+import com.example.clearsolution.dto.UserChange;
+import com.example.clearsolution.dto.UserPage;
+import com.example.clearsolution.dto.UserSummary;
 import com.example.clearsolution.exception.ClearSolutionException;
+import com.example.clearsolution.exception.ConflictException;
+import com.example.clearsolution.exception.PreconditionFailedException;
+import com.example.clearsolution.exception.UserNotFoundException;
 import com.example.clearsolution.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
 
 import java.time.LocalDate;
+import java.time.MonthDay;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyShort;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.when;
 
-@SpringBootTest(classes = UserServiceImpl.class)
+@SpringBootTest(classes = {UserServiceImpl.class, EmailFilter.class, UserCache.class, CacheConfig.class,
+        LocalValidatorFactoryBean.class})
 @ActiveProfiles("test")
+@RecordApplicationEvents
 class UserServiceImplTest {
     @Autowired
     private UserServiceImpl userService;
     @MockBean
     private UserRepository userRepository;
+    @MockBean
+    private EntityManager entityManager;
+    @Autowired
+    private EmailFilter emailFilter;
+    @Autowired
+    private ApplicationEvents applicationEvents;
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void clearCache() {
+        cacheManager.getCache(CacheConfig.USERS_CACHE).clear();
+    }
 
     @Test
     void shouldCreateUser() {
@@ -46,6 +89,50 @@ class UserServiceImplTest {
         User actual = userService.createUser(expected);
 
         assertEquals(expected, actual);
+        assertEquals(List.of(new UserChange(UserChange.Type.CREATED, 0, expected, null)),
+                applicationEvents.stream(UserChange.class).toList());
+    }
+
+    @Test
+    void shouldNotCreateUserWithTakenEmail() {
+        User user = User.builder()
+                .email("taken@gmail.com")
+                .firstName("First")
+                .lastName("Last")
+                .birthDate(LocalDate.parse("1999-12-01"))
+                .build();
+        emailFilter.add("taken@gmail.com");
+        when(userRepository.existsByEmail("taken@gmail.com")).thenReturn(true);
+
+        assertThrows(ConflictException.class, () -> userService.createUser(user));
+
+        Mockito.verify(userRepository, Mockito.never()).save(any(User.class));
+    }
+
+    @Test
+    void shouldSkipEmailProbeForUnknownEmail() {
+        User user = User.builder()
+                .email("never.seen@gmail.com")
+                .firstName("First")
+                .lastName("Last")
+                .birthDate(LocalDate.parse("1999-12-01"))
+                .build();
+        when(userRepository.save(user)).thenReturn(user);
+
+        userService.createUser(user);
+
+        Mockito.verify(userRepository, Mockito.never()).existsByEmail(any());
+        assertTrue(emailFilter.mightContain("never.seen@gmail.com"));
+    }
+
+    @Test
+    void getUserByEmail() {
+        User user = User.builder().id(1).email("elsewhere@gmail.com").build();
+        when(userRepository.findByEmail("elsewhere@gmail.com")).thenReturn(Optional.of(user));
+
+        assertFalse(emailFilter.mightContain("elsewhere@gmail.com"));
+        assertEquals(user, userService.getUserByEmail("elsewhere@gmail.com"));
+        assertThrows(UserNotFoundException.class, () -> userService.getUserByEmail("unknown@gmail.com"));
     }
 
     @Test
@@ -69,7 +156,7 @@ class UserServiceImplTest {
         when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
         when(userRepository.save(any(User.class))).thenReturn(updatedUser);
 
-        User result = userService.updateUser(userId, updatedUser);
+        User result = userService.updateUser(userId, updatedUser, null);
 
         ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
         Mockito.verify(userRepository).save(userCaptor.capture());
@@ -87,8 +174,8 @@ class UserServiceImplTest {
         User updatedUser = User.builder().build();
         when(userRepository.findById(userId)).thenReturn(Optional.empty());
         assertThrows(
-                ClearSolutionException.class,
-                () -> userService.updateUser(userId, updatedUser),
+                UserNotFoundException.class,
+                () -> userService.updateUser(userId, updatedUser, null),
                 "Can not find user by id: 1");
 
         Mockito.verify(userRepository).findById(userId);
@@ -96,58 +183,187 @@ class UserServiceImplTest {
     }
 
     @Test
-    void shouldUpdateUserField() {
+    void shouldNotUpdateStaleUser() {
         Integer userId = 1;
-        User existingUser = new User();
-        existingUser.setId(userId);
-        existingUser.setFirstName("oldemail@example.com");
-
-        User updatedUser = new User();
-        updatedUser.setEmail("newemail@example.com");
-
+        User existingUser = User.builder()
+                .id(userId)
+                .email("oldemail@example.com")
+                .version(3)
+                .build();
         when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
-        when(userRepository.save(any(User.class))).thenReturn(updatedUser);
 
-        User result = userService.updateUserField(userId, updatedUser);
+        assertThrows(
+                PreconditionFailedException.class,
+                () -> userService.updateUser(userId, User.builder().build(), Set.of(2L)));
+
+        Mockito.verify(userRepository, Mockito.never()).save(any(User.class));
+    }
 
-        Mockito.verify(userRepository).findById(userId);
+    @Test
+    void shouldNotUpdateStaleUserField() {
+        Integer userId = 1;
+        User updatedUser = User.builder()
+                .firstName("First")
+                .build();
 
-        ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
-        Mockito.verify(userRepository).save(userCaptor.capture());
-        User savedUser = userCaptor.getValue();
+        when(userRepository.updateFields(userId, Map.of("firstName", "First"), Set.of(2L)))
+                .thenReturn(Optional.empty());
+        when(userRepository.existsById(userId)).thenReturn(true);
 
-        assertEquals(updatedUser.getEmail(), savedUser.getEmail());
-        assertEquals(updatedUser, result);
+        assertThrows(
+                PreconditionFailedException.class,
+                () -> userService.updateUserField(userId, updatedUser, Set.of(2L)));
     }
 
     @Test
-    void shouldNotUpdateUserFieldAgeLimitNotMet() {
+    void shouldUpdateUserField() {
         Integer userId = 1;
-        User existingUser = User.builder()
+        User updatedUser = new User();
+        updatedUser.setEmail("newemail@gmail.com");
+
+        User patchedUser = User.builder()
                 .id(userId)
-                .birthDate(LocalDate.parse("2000-01-01"))
+                .email("newemail@gmail.com")
+                .firstName("First")
                 .build();
 
+        when(userRepository.updateFields(userId, Map.of("email", "newemail@gmail.com"), null))
+                .thenReturn(Optional.of(new UpdatedUser(patchedUser, null)));
+
+        User result = userService.updateUserField(userId, updatedUser, null);
+
+        assertEquals(patchedUser, result);
+        Mockito.verify(userRepository, Mockito.never()).findById(userId);
+        Mockito.verify(userRepository, Mockito.never()).save(any(User.class));
+    }
+
+    @Test
+    void shouldNotUpdateUserFieldWhenUserNotFound() {
+        Integer userId = 1;
         User updatedUser = User.builder()
-                .birthDate(LocalDate.parse("2015-01-01"))
+                .firstName("First")
                 .build();
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
+        when(userRepository.updateFields(userId, Map.of("firstName", "First"), null))
+                .thenReturn(Optional.empty());
+
+        assertThrows(
+                UserNotFoundException.class,
+                () -> userService.updateUserField(userId, updatedUser, null));
+    }
+
+    @Test
+    void shouldNotUpdateUserFieldAgeLimitNotMet() {
+        Integer userId = 1;
+        User updatedUser = User.builder()
+                .birthDate(LocalDate.now().minusYears(10))
+                .build();
 
         assertThrows(
                 ClearSolutionException.class,
-                () -> userService.updateUserField(userId, updatedUser),
+                () -> userService.updateUserField(userId, updatedUser, null),
                 "Date of birth must be in the past"
         );
 
-        Mockito.verify(userRepository, times(1)).findById(userId);
+        Mockito.verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void shouldMergePatchUser() {
+        Integer userId = 1;
+        Map<String, Object> patch = new HashMap<>();
+        patch.put("address", null);
+        patch.put("birthDate", "1990-02-03");
+
+        Map<String, Object> expectedFields = new HashMap<>();
+        expectedFields.put("address", null);
+        expectedFields.put("birthDate", LocalDate.parse("1990-02-03"));
+
+        User patchedUser = User.builder()
+                .id(userId)
+                .birthDate(LocalDate.parse("1990-02-03"))
+                .build();
+
+        when(userRepository.updateFields(userId, expectedFields, null))
+                .thenReturn(Optional.of(new UpdatedUser(patchedUser, LocalDate.parse("1985-06-07"))));
+
+        assertEquals(patchedUser, userService.mergePatchUser(userId, patch, null));
+        assertEquals(
+                List.of(new UserChange(UserChange.Type.UPDATED, userId, patchedUser, LocalDate.parse("1985-06-07"))),
+                applicationEvents.stream(UserChange.class).toList());
+    }
+
+    @Test
+    void shouldNotMergePatchRequiredFieldToNull() {
+        Map<String, Object> patch = new HashMap<>();
+        patch.put("email", null);
+
+        ClearSolutionException exception = assertThrows(
+                ClearSolutionException.class,
+                () -> userService.mergePatchUser(1, patch, null));
+
+        assertEquals("Email is required", exception.getMessage());
+        Mockito.verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void shouldNotMergePatchUnknownField() {
+        assertThrows(
+                ClearSolutionException.class,
+                () -> userService.mergePatchUser(1, Map.of("id", "2"), null));
+
+        Mockito.verifyNoInteractions(userRepository);
     }
 
     @Test
     void shouldDeleteUserSuccess() {
         Integer userId = 1;
-        userService.deleteUser(userId);
-        Mockito.verify(userRepository).deleteById(userId);
+        LocalDate birthDate = LocalDate.of(1990, 1, 1);
+        when(userRepository.deleteUserById(userId)).thenReturn(Optional.of(new DeletedUser(userId, birthDate)));
+
+        assertTrue(userService.deleteUser(userId));
+        assertEquals(List.of(new UserChange(UserChange.Type.DELETED, userId, null, birthDate)),
+                applicationEvents.stream(UserChange.class).toList());
+        Mockito.verify(userRepository).deleteUserById(userId);
+        Mockito.verify(userRepository, Mockito.never()).findById(userId);
+    }
+
+    @Test
+    void shouldNotDeleteMissingUser() {
+        when(userRepository.deleteUserById(1)).thenReturn(Optional.empty());
+
+        assertFalse(userService.deleteUser(1));
+    }
+
+    @Test
+    void shouldDeleteUsersInChunks() {
+        List<Integer> userIds = IntStream.rangeClosed(1, 2500).boxed().toList();
+        List<DeletedUser> deletedUsers = userIds.stream().map(id -> new DeletedUser(id, null)).toList();
+        when(userRepository.deleteUsersByIdIn(anyList()))
+                .thenReturn(deletedUsers.subList(0, 1000))
+                .thenReturn(deletedUsers.subList(1000, 2000))
+                .thenReturn(deletedUsers.subList(2000, 2500));
+
+        assertEquals(2500, userService.deleteUsers(userIds));
+        assertEquals(2500, applicationEvents.stream(UserChange.class)
+                .filter(change -> change.getType() == UserChange.Type.DELETED)
+                .count());
+        Mockito.verify(userRepository).deleteUsersByIdIn(userIds.subList(0, 1000));
+        Mockito.verify(userRepository).deleteUsersByIdIn(userIds.subList(1000, 2000));
+        Mockito.verify(userRepository).deleteUsersByIdIn(userIds.subList(2000, 2500));
+    }
+
+    @Test
+    void shouldDeleteUsersByBirthDateRangeUntilChunkIsPartial() {
+        LocalDate startDate = LocalDate.of(1990, 1, 1);
+        LocalDate endDate = LocalDate.of(2000, 12, 31);
+        when(userRepository.deleteUsersByBirthDateBetween(startDate, endDate, 1000))
+                .thenReturn(IntStream.range(0, 1000).mapToObj(id -> new DeletedUser(id, startDate)).toList())
+                .thenReturn(IntStream.range(1000, 1010).mapToObj(id -> new DeletedUser(id, startDate)).toList());
+
+        assertEquals(1010, userService.deleteUsersByBirthDateRange(startDate, endDate));
+        Mockito.verify(userRepository, times(2))
+                .deleteUsersByBirthDateBetween(startDate, endDate, 1000);
     }
 
     @Test
@@ -176,6 +392,15 @@ class UserServiceImplTest {
         Mockito.verify(userRepository).findByBirthDateBetween(startDate, endDate);
     }
 
+    @Test
+    void getUsersByBirthdayAcrossYearEnd() {
+        List<User> users = List.of(User.builder().id(1).birthDate(LocalDate.parse("1990-12-31")).build());
+        when(userRepository.findByBirthMonthDayAcrossYearEnd((short) 1230, (short) 102)).thenReturn(users);
+
+        assertEquals(users, userService.getUsersByBirthday(MonthDay.of(12, 30), MonthDay.of(1, 2)));
+        Mockito.verify(userRepository, Mockito.never()).findByBirthMonthDayBetween(anyShort(), anyShort());
+    }
+
     @Test
     void getListOfUsers() {
         User first = User.builder()
@@ -194,4 +419,236 @@ class UserServiceImplTest {
         List<User> listOfUsers = userService.getListOfUsers();
         assertEquals(2,listOfUsers.size());
     }
+
+    @Test
+    void getListOfUserFields() {
+        List<Map<String, Object>> rows = List.of(Map.of("id", 1, "email", "first@gmail.com"));
+        when(userRepository.findFields(List.of("id", "email"))).thenReturn(rows);
+
+        assertEquals(rows, userService.getListOfUsers(List.of("id", " email", "id")));
+    }
+
+    @Test
+    void shouldNotSelectUnknownField() {
+        ClearSolutionException exception = assertThrows(
+                ClearSolutionException.class,
+                () -> userService.getListOfUsers(List.of("id", "password")));
+
+        assertEquals("Field can not be selected: password", exception.getMessage());
+        Mockito.verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void getUsersPage() {
+        User first = User.builder().id(3).build();
+        User second = User.builder().id(4).build();
+        User third = User.builder().id(5).build();
+
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(2, PageRequest.of(0, 3)))
+                .thenReturn(List.of(first, second, third));
+
+        UserPage page = userService.getUsersPage(2, 2);
+
+        assertEquals(List.of(first, second), page.getUsers());
+        assertEquals(4, page.getNextCursor());
+    }
+
+    @Test
+    void getLastUsersPage() {
+        User first = User.builder().id(1).build();
+
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(0, PageRequest.of(0, 3)))
+                .thenReturn(List.of(first));
+
+        UserPage page = userService.getUsersPage(null, 2);
+
+        assertEquals(List.of(first), page.getUsers());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void shouldNotGetUsersPageLimitExceeded() {
+        assertThrows(
+                ClearSolutionException.class,
+                () -> userService.getUsersPage(null, 100_000));
+
+        Mockito.verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void exportUsers() {
+        User first = User.builder().id(1).build();
+        User second = User.builder().id(2).build();
+        List<User> exported = new ArrayList<>();
+
+        when(userRepository.streamAll()).thenReturn(Stream.of(first, second));
+
+        userService.exportUsers(exported::add);
+
+        assertEquals(List.of(first, second), exported);
+        Mockito.verify(entityManager).detach(first);
+        Mockito.verify(entityManager).detach(second);
+    }
+
+    @Test
+    void shouldCreateUsersReportingInvalidOnes() {
+        User valid = User.builder()
+                .email("test@gmail.com")
+                .firstName("First")
+                .lastName("Last")
+                .birthDate(LocalDate.parse("1999-12-01"))
+                .build();
+        User tooYoung = User.builder()
+                .email("young@gmail.com")
+                .firstName("First")
+                .lastName("Last")
+                .birthDate(LocalDate.now().minusYears(1))
+                .build();
+        User invalid = User.builder()
+                .birthDate(LocalDate.parse("1999-12-01"))
+                .build();
+        User duplicate = User.builder()
+                .email("test@gmail.com")
+                .firstName("Other")
+                .lastName("Last")
+                .birthDate(LocalDate.parse("1999-12-01"))
+                .build();
+
+        UserBatchResult result = userService.createUsers(List.of(valid, tooYoung, invalid, duplicate));
+
+        Mockito.verify(userRepository).saveAll(List.of(valid));
+        Mockito.verify(entityManager).flush();
+        assertEquals(1, result.getCreatedIds().size());
+        assertEquals(3, result.getErrors().size());
+        assertEquals(1, result.getErrors().get(0).getIndex());
+        assertEquals(List.of("Date of birth must be in the past"),
+                result.getErrors().get(0).getMessages());
+        assertEquals(2, result.getErrors().get(1).getIndex());
+        assertEquals(List.of("Email is required", "First name is required", "Last name is required"),
+                result.getErrors().get(1).getMessages());
+        assertEquals(3, result.getErrors().get(2).getIndex());
+        assertEquals(List.of("Email is already taken"), result.getErrors().get(2).getMessages());
+    }
+
+    @Test
+    void shouldReportEmailsTakenOutsideThisInstanceInBatch() {
+        User fresh = User.builder()
+                .email("fresh@gmail.com")
+                .firstName("First")
+                .lastName("Last")
+                .birthDate(LocalDate.parse("1999-12-01"))
+                .build();
+        User takenElsewhere = User.builder()
+                .email("elsewhere.batch@gmail.com")
+                .firstName("First")
+                .lastName("Last")
+                .birthDate(LocalDate.parse("1999-12-01"))
+                .build();
+        when(userRepository.findTakenEmails(List.of("fresh@gmail.com", "elsewhere.batch@gmail.com")))
+                .thenReturn(List.of("elsewhere.batch@gmail.com"));
+
+        assertFalse(emailFilter.mightContain("elsewhere.batch@gmail.com"));
+        UserBatchResult result = userService.createUsers(List.of(fresh, takenElsewhere));
+
+        Mockito.verify(userRepository).saveAll(List.of(fresh));
+        Mockito.verify(userRepository, Mockito.never()).existsByEmail(any());
+        assertEquals(1, result.getCreatedIds().size());
+        assertEquals(1, result.getErrors().size());
+        assertEquals(1, result.getErrors().get(0).getIndex());
+        assertEquals(List.of("Email is already taken"), result.getErrors().get(0).getMessages());
+    }
+
+    @Test
+    void getUser() {
+        User user = User.builder().id(1).build();
+        when(userRepository.findById(1)).thenAnswer(invocation -> {
+            assertTrue(ReplicaRoutingContext.isPrimaryRequired(), "cached users must be loaded from the primary");
+            return Optional.of(user);
+        });
+
+        assertEquals(user, userService.getUser(1));
+        assertFalse(ReplicaRoutingContext.isPrimaryRequired());
+    }
+
+    @Test
+    void shouldServeCachedUser() {
+        User user = User.builder().id(1).build();
+        when(userRepository.findById(1)).thenReturn(Optional.of(user));
+
+        assertEquals(user, userService.getUser(1));
+        assertEquals(user, userService.getUser(1));
+        Mockito.verify(userRepository).findById(1);
+    }
+
+    @Test
+    void shouldNotCacheUserReadBeforeConcurrentUpdate() {
+        User stale = User.builder().id(1).firstName("Old").version(1).build();
+        User patched = User.builder().id(1).firstName("New").version(2).build();
+        when(userRepository.updateFields(1, Map.of("firstName", "New"), null))
+                .thenReturn(Optional.of(new UpdatedUser(patched, null)));
+        when(userRepository.findById(1))
+                .thenAnswer(invocation -> {
+                    userService.mergePatchUser(1, Map.of("firstName", "New"), null);
+                    return Optional.of(stale);
+                })
+                .thenReturn(Optional.of(patched));
+
+        assertEquals(stale, userService.getUser(1));
+        assertEquals(patched, userService.getUser(1));
+        assertEquals(patched, userService.getUser(1));
+        Mockito.verify(userRepository, times(2)).findById(1);
+    }
+
+    @Test
+    void shouldNotCacheUserReadBeforeConcurrentDelete() {
+        User stale = User.builder().id(1).build();
+        when(userRepository.deleteUserById(1)).thenReturn(Optional.of(new DeletedUser(1, null)));
+        when(userRepository.findById(1))
+                .thenAnswer(invocation -> {
+                    userService.deleteUser(1);
+                    return Optional.of(stale);
+                })
+                .thenReturn(Optional.empty());
+
+        assertEquals(stale, userService.getUser(1));
+        assertThrows(UserNotFoundException.class, () -> userService.getUser(1));
+    }
+
+    @Test
+    void shouldEvictOnlyDeletedUsers() {
+        when(userRepository.findById(1)).thenReturn(Optional.of(User.builder().id(1).build()));
+        when(userRepository.findById(2)).thenReturn(Optional.of(User.builder().id(2).build()));
+        when(userRepository.deleteUsersByIdIn(List.of(1))).thenReturn(List.of(new DeletedUser(1, null)));
+        userService.getUser(1);
+        userService.getUser(2);
+
+        userService.deleteUsers(List.of(1));
+        when(userRepository.findById(1)).thenReturn(Optional.empty());
+
+        assertThrows(UserNotFoundException.class, () -> userService.getUser(1));
+        userService.getUser(2);
+        Mockito.verify(userRepository).findById(2);
+    }
+
+    @Test
+    void shouldNotGetMissingUser() {
+        when(userRepository.findById(1)).thenReturn(Optional.empty());
+
+        assertThrows(UserNotFoundException.class, () -> userService.getUser(1));
+    }
+
+    @Test
+    void getUserSummariesByBirthDateRange() {
+        LocalDate startDate = LocalDate.of(1990, 1, 1);
+        LocalDate endDate = LocalDate.of(2000, 12, 31);
+        UserSummary summary = new UserSummary(1, "First", "Last", LocalDate.of(1999, 1, 1));
+        PageRequest pageRequest = PageRequest.of(0, 10,
+                Sort.by(Sort.Direction.DESC, "birthDate").and(Sort.by(Sort.Direction.DESC, "id")));
+
+        when(userRepository.findSummariesByBirthDateBetween(startDate, endDate, pageRequest))
+                .thenReturn(List.of(summary));
+
+        assertEquals(List.of(summary), userService.getUserSummariesByBirthDateRange(startDate, endDate,
+                Sort.Direction.DESC, 10));
+    }
 }
\ No newline at end of file
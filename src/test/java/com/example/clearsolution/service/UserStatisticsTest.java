@@ -0,0 +1,82 @@
+package com.example.clearsolution.service;
+
+import com.example.clearsolution.dto.BirthDateCount;
+import com.example.clearsolution.dto.User;
+import com.example.clearsolution.dto.UserAgeDistribution;
+import com.example.clearsolution.dto.UserChange;
+import com.example.clearsolution.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(classes = UserStatistics.class, properties = "user.statistics.reconcile-interval=PT1H")
+class UserStatisticsTest {
+    @Autowired
+    private UserStatistics userStatistics;
+    @MockBean
+    private UserRepository userRepository;
+
+    @Test
+    void shouldCountUsersPerAgeBucketAndBirthYear() {
+        LocalDate today = LocalDate.now();
+        LocalDate twentyFive = today.minusYears(25);
+        LocalDate thirtyNine = today.minusYears(40).plusDays(1);
+        LocalDate forty = today.minusYears(40);
+        when(userRepository.countUsersPerBirthDate()).thenReturn(List.of(
+                new BirthDateCount(twentyFive, 3),
+                new BirthDateCount(thirtyNine, 2)));
+        userStatistics.reconcile();
+
+        userStatistics.onUserChange(new UserChange(UserChange.Type.CREATED, 1, user(forty), null));
+        userStatistics.onUserChange(new UserChange(UserChange.Type.UPDATED, 2, user(forty), twentyFive));
+        userStatistics.onUserChange(new UserChange(UserChange.Type.DELETED, 3, null, thirtyNine));
+
+        UserAgeDistribution distribution = userStatistics.getAgeDistribution(10);
+        assertEquals(5, distribution.getUsers());
+        assertEquals(List.of(
+                new UserAgeDistribution.AgeBucket(0, 9, 0),
+                new UserAgeDistribution.AgeBucket(10, 19, 0),
+                new UserAgeDistribution.AgeBucket(20, 29, 2),
+                new UserAgeDistribution.AgeBucket(30, 39, 1),
+                new UserAgeDistribution.AgeBucket(40, 49, 2)), distribution.getAgeBuckets());
+        assertEquals(5, distribution.getBirthYears().values().stream().mapToLong(Long::longValue).sum());
+        assertEquals(2L, distribution.getBirthYears().get(twentyFive.getYear()));
+    }
+
+    @Test
+    void shouldKeepChangesCommittedDuringRebuild() {
+        LocalDate birthDate = LocalDate.parse("1990-01-01");
+        when(userRepository.countUsersPerBirthDate()).thenAnswer(invocation -> {
+            userStatistics.onUserChange(new UserChange(UserChange.Type.CREATED, 2, user(birthDate), null));
+            return List.of(new BirthDateCount(birthDate, 1));
+        });
+
+        userStatistics.reconcile();
+
+        assertEquals(2, userStatistics.getAgeDistribution(10).getUsers());
+    }
+
+    @Test
+    void shouldIgnoreBirthDatesOutsideTrackedRange() {
+        when(userRepository.countUsersPerBirthDate()).thenReturn(List.of(
+                new BirthDateCount(LocalDate.parse("1850-06-01"), 2),
+                new BirthDateCount(LocalDate.parse("1900-06-01"), 1)));
+        userStatistics.reconcile();
+
+        UserAgeDistribution distribution = userStatistics.getAgeDistribution(100);
+        assertEquals(1, distribution.getUsers());
+        assertEquals(Map.of(1900, 1L), distribution.getBirthYears());
+    }
+
+    private User user(LocalDate birthDate) {
+        return User.builder().birthDate(birthDate).build();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.clearsolution.service;
+
+import com.example.clearsolution.dto.User;
+import com.example.clearsolution.dto.UserWriteStatus;
+import com.example.clearsolution.exception.ConflictException;
+import com.example.clearsolution.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(classes = {UserWriteBehindService.class, SimpleMeterRegistry.class}, properties = {
+        "user.write-behind.enabled=true",
+        "user.write-behind.capacity=2",
+        "user.write-behind.batch-size=10",
+        "user.write-behind.flush-interval=1h",
+        "user.write-behind.status-ttl=10m"
+})
+class UserWriteBehindServiceTest {
+    @Autowired
+    private UserWriteBehindService writeBehindService;
+    @MockBean
+    private UserService userService;
+    @MockBean
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0, TransactionCallback.class)
+                        .doInTransaction(null));
+    }
+
+    @Test
+    void shouldCoalesceUpdatesToSameUser() {
+        User first = User.builder().email("first@gmail.com").build();
+        User second = User.builder().email("second@gmail.com").build();
+        when(userService.updateUser(eq(1), any(User.class), isNull()))
+                .thenReturn(User.builder().id(1).email("second@gmail.com").build());
+
+        UserWriteStatus firstStatus = writeBehindService.enqueueUpdate(1, first);
+        UserWriteStatus secondStatus = writeBehindService.enqueueUpdate(1, second);
+        assertEquals(UserWriteStatus.State.QUEUED, firstStatus.getState());
+        assertEquals(1, meterRegistry.get("user.write.behind.queue.size").gauge().value());
+
+        writeBehindService.flushPending();
+        assertEquals(0, meterRegistry.get("user.write.behind.queue.size").gauge().value());
+
+        Mockito.verify(userService, times(1)).updateUser(1, second, null);
+        assertEquals(UserWriteStatus.State.COMMITTED,
+                writeBehindService.getStatus(firstStatus.getTrackingId()).getState());
+        assertEquals(UserWriteStatus.State.COMMITTED,
+                writeBehindService.getStatus(secondStatus.getTrackingId()).getState());
+    }
+
+    @Test
+    void shouldRejectWritesWhenQueueIsFull() {
+        User user = User.builder()
+                .email("test@gmail.com")
+                .birthDate(LocalDate.parse("1999-12-01"))
+                .build();
+        when(userService.createUser(any(User.class))).thenReturn(User.builder().id(7).build());
+
+        writeBehindService.enqueueCreate(user);
+        writeBehindService.enqueueCreate(user);
+        assertThrows(TooManyRequestsException.class, () -> writeBehindService.enqueueCreate(user));
+
+        writeBehindService.flushPending();
+        Mockito.verify(userService, times(2)).createUser(any(User.class));
+    }
+
+    @Test
+    void shouldRetryFailedGroupCommitOneByOne() {
+        User created = User.builder().email("new@gmail.com").build();
+        User updated = User.builder().email("taken@gmail.com").build();
+        when(userService.createUser(any(User.class))).thenReturn(User.builder().id(5).build());
+        when(userService.updateUser(eq(2), any(User.class), isNull()))
+                .thenThrow(new ConflictException("Email is already taken"));
+
+        UserWriteStatus createStatus = writeBehindService.enqueueCreate(created);
+        UserWriteStatus updateStatus = writeBehindService.enqueueUpdate(2, updated);
+
+        writeBehindService.flushPending();
+
+        UserWriteStatus committed = writeBehindService.getStatus(createStatus.getTrackingId());
+        assertEquals(UserWriteStatus.State.COMMITTED, committed.getState());
+        assertEquals(5, committed.getUserId());
+        UserWriteStatus failed = writeBehindService.getStatus(updateStatus.getTrackingId());
+        assertEquals(UserWriteStatus.State.FAILED, failed.getState());
+        assertEquals("Email is already taken", failed.getMessage());
+        Mockito.verify(transactionTemplate, times(3)).execute(any());
+    }
+}